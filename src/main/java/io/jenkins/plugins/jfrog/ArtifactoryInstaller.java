@@ -15,6 +15,7 @@ import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 import org.jfrog.build.client.Version;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.verb.POST;
 
@@ -40,6 +41,8 @@ public class ArtifactoryInstaller extends BinaryInstaller {
     final String repository;
     @Setter
     String version;
+    // Download JFrog CLI once to the controller, and transfer it to the agents
+    boolean downloadOnController;
 
     @DataBoundConstructor
     public ArtifactoryInstaller(String serverId, String repository, String version) {
@@ -49,34 +52,54 @@ public class ArtifactoryInstaller extends BinaryInstaller {
         this.version = StringUtils.trim(version);
     }
 
+    @DataBoundSetter
+    public void setDownloadOnController(boolean downloadOnController) {
+        this.downloadOnController = downloadOnController;
+    }
+
     @Override
     public FilePath performInstallation(ToolInstallation tool, Node node, TaskListener log) throws IOException, InterruptedException {
-        JFrogPlatformInstance server = getSpecificServer(getServerId());
+        JFrogPlatformInstance server = getConfiguredServer(getServerId());
         if (server == null) {
             throw new IOException("Server id '" + getServerId() + "' doesn't exists.");
         }
+        return performInstallation(tool, node, log, server);
+    }
+
+    /**
+     * Install JFrog CLI from the given server.
+     *
+     * @param tool   - The JFrog CLI tool
+     * @param node   - The node to install on
+     * @param log    - The installation log
+     * @param server - The server to download JFrog CLI from
+     * @return the tool location.
+     */
+    FilePath performInstallation(ToolInstallation tool, Node node, TaskListener log, JFrogPlatformInstance server) throws IOException, InterruptedException {
         String binaryName = Utils.getJfrogCliBinaryName(!node.createLauncher(log).isUnix());
-        return performJfrogCliInstallation(getToolLocation(tool, node), log, getVersion(), server, getRepository(), binaryName);
+        FilePath toolLocation = getToolLocation(tool, node);
+        if (isDownloadOnController()) {
+            JFrogCliControllerCache.install(toolLocation, log, getVersion(), server, getRepository(), binaryName);
+        } else {
+            performJfrogCliInstallation(toolLocation, log, getVersion(), server, getRepository(), binaryName);
+        }
+        manageDependenciesDir(toolLocation, log);
+        return toolLocation;
     }
 
     /**
-     * Look for all configured server ids and return the specific one matched the given id.
+     * Look for all configured server ids and return the specific one matched the given id, with its global credentials.
      */
-    JFrogPlatformInstance getSpecificServer(String id) {
-        List<JFrogPlatformInstance> jfrogInstances = JFrogPlatformBuilder.getJFrogPlatformInstances();
-        if (jfrogInstances != null && !jfrogInstances.isEmpty()) {
-            for (JFrogPlatformInstance jfrogPlatformInstance : jfrogInstances) {
-                if (jfrogPlatformInstance.getId().equals(id)) {
-                    // Getting credentials
-                    // We sent a null item to 'credentialsLookup' since we do not know which job will be running at the time of installation, and we don't have the relevant 'Run' object yet.
-                    // Therefore, when downloading the CLI from the user's Artifactory remote repository, we should use global credentials.
-                    String credentialsId = jfrogPlatformInstance.getCredentialsConfig().getCredentialsId();
-                    jfrogPlatformInstance.setCredentialsConfig(new CredentialsConfig(credentialsId, PluginsUtils.credentialsLookup(credentialsId, null)));
-                    return jfrogPlatformInstance;
-                }
-            }
+    static JFrogPlatformInstance getConfiguredServer(String id) {
+        JFrogPlatformInstance jfrogPlatformInstance = JFrogPlatformBuilder.getJFrogPlatformInstance(id);
+        if (jfrogPlatformInstance == null) {
+            return null;
         }
-        return null;
+        // Getting credentials
+        // We sent a null item to 'credentialsLookup' since we do not know which job will be running at the time of installation, and we don't have the relevant 'Run' object yet.
+        // Therefore, when downloading the CLI from the user's Artifactory remote repository, we should use global credentials.
+        String credentialsId = jfrogPlatformInstance.getCredentialsConfig().getCredentialsId();
+        return jfrogPlatformInstance.withCredentialsConfig(new CredentialsConfig(credentialsId, PluginsUtils.credentialsLookup(credentialsId, null)));
     }
 
     /**
@@ -0,0 +1,58 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformBuilder;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * A JFrog Platform instance and a remote repository to download JFrog CLI from, used by {@link ArtifactoryMirrorsInstaller}.
+ */
+@Getter
+public class ArtifactoryMirror extends AbstractDescribableImpl<ArtifactoryMirror> {
+    private final String serverId;
+    private final String repository;
+
+    @DataBoundConstructor
+    public ArtifactoryMirror(String serverId, String repository) {
+        this.serverId = serverId;
+        this.repository = StringUtils.trim(repository);
+    }
+
+    @Extension
+    @SuppressWarnings("unused")
+    public static final class DescriptorImpl extends Descriptor<ArtifactoryMirror> {
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Artifactory mirror";
+        }
+
+        /**
+         * Necessary for displaying all configured server Ids. Used in the Jelly to show the server IDs.
+         *
+         * @return All pre configured servers Ids
+         */
+        public List<JFrogPlatformInstance> getServerIds() {
+            return JFrogPlatformBuilder.getJFrogPlatformInstances();
+        }
+
+        @POST
+        public FormValidation doCheckRepository(@QueryParameter String repository) {
+            if (StringUtils.isBlank(repository)) {
+                return FormValidation.error("Required");
+            }
+            return FormValidation.ok();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.tools.ToolInstallation;
+import hudson.util.FormValidation;
+import io.jenkins.plugins.jfrog.callables.JFrogCliMirrorsDownloader;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Download and install JFrog CLI from the fastest of several Artifactory mirrors.
+ * The agent probes the mirrors, starting a request to the next mirror if the previous one is slow to respond,
+ * and fails over to the next mirror on errors. The measured latencies are kept by the agent, to rank the mirrors
+ * in the next installations.
+ */
+@Getter
+@SuppressWarnings("unused")
+public class ArtifactoryMirrorsInstaller extends BinaryInstaller {
+    private final List<ArtifactoryMirror> mirrors;
+    private final String version;
+
+    @DataBoundConstructor
+    public ArtifactoryMirrorsInstaller(List<ArtifactoryMirror> mirrors, String version) {
+        super(null);
+        this.mirrors = mirrors != null ? new ArrayList<>(mirrors) : Collections.emptyList();
+        this.version = StringUtils.trim(version);
+    }
+
+    @Override
+    public FilePath performInstallation(ToolInstallation tool, Node node, TaskListener log) throws IOException, InterruptedException {
+        List<JFrogCliMirrorsDownloader.Mirror> resolvedMirrors = new ArrayList<>();
+        for (ArtifactoryMirror mirror : getMirrors()) {
+            JFrogPlatformInstance server = ArtifactoryInstaller.getConfiguredServer(mirror.getServerId());
+            if (server == null) {
+                log.getLogger().printf("Server id '%s' doesn't exists. Skipping this mirror.%n", mirror.getServerId());
+                continue;
+            }
+            resolvedMirrors.add(new JFrogCliMirrorsDownloader.Mirror(server, mirror.getRepository()));
+        }
+        if (resolvedMirrors.isEmpty()) {
+            throw new IOException("No valid Artifactory mirror is configured to download JFrog CLI from.");
+        }
+        String binaryName = Utils.getJfrogCliBinaryName(!node.createLauncher(log).isUnix());
+        FilePath toolLocation = getToolLocation(tool, node);
+        toolLocation.act(new JFrogCliMirrorsDownloader(new JenkinsProxyConfiguration(), getVersion(), resolvedMirrors, log, binaryName));
+        manageDependenciesDir(toolLocation, log);
+        return toolLocation;
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends BinaryInstaller.DescriptorImpl<ArtifactoryMirrorsInstaller> {
+        @Nonnull
+        public String getDisplayName() {
+            return "Install from Artifactory mirrors";
+        }
+
+        @Override
+        public boolean isApplicable(Class<? extends ToolInstallation> toolType) {
+            return toolType == JfrogInstallation.class;
+        }
+
+        @POST
+        public FormValidation doCheckVersion(@QueryParameter String version) {
+            return ArtifactoryInstaller.validateCliVersion(version);
+        }
+    }
+}
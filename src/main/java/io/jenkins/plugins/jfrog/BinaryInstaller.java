@@ -6,9 +6,12 @@ import hudson.model.TaskListener;
 import hudson.tools.ToolInstallation;
 import hudson.tools.ToolInstaller;
 import hudson.tools.ToolInstallerDescriptor;
+import io.jenkins.plugins.jfrog.callables.JFrogCliDependenciesDir;
 import io.jenkins.plugins.jfrog.callables.JFrogCliDownloader;
+import io.jenkins.plugins.jfrog.callables.JFrogCliStore;
 import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
 import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import jenkins.model.Jenkins;
 
 import java.io.IOException;
 
@@ -47,10 +50,48 @@ public abstract class BinaryInstaller extends ToolInstaller {
         }
     }
 
+    /**
+     * Keep the JFrog CLI dependencies directory, which is a sibling of the tool directories, under its size cap.
+     * Failures are logged and don't fail the installation.
+     *
+     * @param toolLocation - The tool directory
+     * @param log          - The logger
+     */
+    static void manageDependenciesDir(FilePath toolLocation, TaskListener log) throws InterruptedException {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        JfrogInstallation.DescriptorImpl descriptor = jenkins == null ? null : jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class);
+        FilePath dependenciesDir = toolLocation.sibling(JfrogInstallation.JfrogDependenciesDirName);
+        if (descriptor == null || dependenciesDir == null) {
+            return;
+        }
+        try {
+            String report = dependenciesDir.act(new JFrogCliDependenciesDir(descriptor.getDependenciesDirMaxSizeMb()));
+            if (report != null) {
+                log.getLogger().println(report);
+            }
+        } catch (IOException e) {
+            log.getLogger().println("Couldn't check the JFrog CLI dependencies directory: " + e.getMessage());
+        }
+    }
+
     public static FilePath performJfrogCliInstallation(FilePath toolLocation, TaskListener log, String version, JFrogPlatformInstance instance, String repository, String binaryName) throws IOException, InterruptedException {
         JenkinsProxyConfiguration proxyConfiguration = new JenkinsProxyConfiguration();
+        // Resolve the binary sha256 on the controller, to skip the request to Artifactory if the agent is up-to-date
+        String cliUrlSuffix = JFrogCliDownloader.getCliUrlSuffix(repository, version, OsUtils.getOsDetails(toolLocation), binaryName);
+        String sha256 = JFrogCliSha256Cache.getSha256(instance, cliUrlSuffix);
         // Download Jfrog CLI binary
-        toolLocation.act(new JFrogCliDownloader(proxyConfiguration, version, instance, log, repository, binaryName));
+        try {
+            toolLocation.act(new JFrogCliDownloader(proxyConfiguration, version, instance, log, repository, binaryName, sha256));
+        } catch (JFrogCliStore.Sha256MismatchException e) {
+            if (sha256 == null) {
+                throw e;
+            }
+            // A new JFrog CLI was released after the sha256 was cached. Retry once with the current sha256.
+            log.getLogger().printf("The cached sha256 of '%s' is outdated. Installing it again.%n", binaryName);
+            JFrogCliSha256Cache.invalidate(instance, cliUrlSuffix);
+            sha256 = JFrogCliSha256Cache.getSha256(instance, cliUrlSuffix);
+            toolLocation.act(new JFrogCliDownloader(proxyConfiguration, version, instance, log, repository, binaryName, sha256));
+        }
         return toolLocation;
     }
 }
@@ -0,0 +1,83 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Captures the output of a 'jf' command.
+ * If a target file is provided, the output is kept in memory up to the memory limit, and spills to the file above it.
+ * The file is always written when the stream is closed, so it contains the full output of the command.
+ * Without a target file, the output is kept in memory.
+ **/
+public class CapturedOutputStream extends OutputStream {
+    private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private final FilePath targetFile;
+    private final long memoryLimit;
+    private OutputStream fileOutputStream;
+    private boolean closed;
+
+    public CapturedOutputStream(FilePath targetFile, long memoryLimit) {
+        this.targetFile = targetFile;
+        this.memoryLimit = memoryLimit;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (fileOutputStream == null && targetFile != null && memory.size() + (long) len > memoryLimit) {
+            spill();
+        }
+        if (fileOutputStream != null) {
+            fileOutputStream.write(b, off, len);
+            return;
+        }
+        memory.write(b, off, len);
+    }
+
+    /**
+     * @return true if the output exceeded the memory limit and was moved to the target file.
+     */
+    public synchronized boolean isSpilled() {
+        return fileOutputStream != null;
+    }
+
+    /**
+     * @return the output kept in memory. Empty if the output was spilled to the target file.
+     */
+    @Override
+    public synchronized String toString() {
+        return memory.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed || targetFile == null) {
+            return;
+        }
+        closed = true;
+        if (fileOutputStream == null) {
+            spill();
+        }
+        fileOutputStream.close();
+    }
+
+    private void spill() throws IOException {
+        try {
+            fileOutputStream = targetFile.write();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to " + targetFile.getRemote());
+        }
+        memory.writeTo(fileOutputStream);
+        memory.reset();
+    }
+}
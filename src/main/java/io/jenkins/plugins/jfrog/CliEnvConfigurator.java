@@ -3,6 +3,7 @@ package io.jenkins.plugins.jfrog;
 import hudson.EnvVars;
 import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
 import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import io.jenkins.plugins.jfrog.configuration.NoProxyHosts;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -66,7 +67,7 @@ public class CliEnvConfigurator {
         env.put(HTTP_PROXY_ENV, proxyUrl);
         env.put(HTTPS_PROXY_ENV, proxyUrl);
         if (StringUtils.isNotBlank(proxyConfiguration.noProxy)) {
-            env.put(NO_PROXY, createNoProxyValue(proxyConfiguration.noProxy));
+            env.put(NO_PROXY, proxyConfiguration.getNoProxyValue());
         }
     }
 
@@ -87,9 +88,6 @@ public class CliEnvConfigurator {
      * @return A comma-separated string of No Proxy Hosts.
      */
     static String createNoProxyValue(String noProxy) {
-        // Trim leading and trailing spaces, Replace '|' and ';' with spaces and normalize whitespace
-        String noProxyListRemoveSpaceAndPipe = noProxy.trim().replaceAll("[\\s|;]+", ",");
-        // Replace multiple commas with a single comma, and remove the last one if present
-        return noProxyListRemoveSpaceAndPipe.replaceAll(",+", ",").replaceAll("^,|,$", "");
+        return NoProxyHosts.createNoProxyValue(noProxy);
     }
 }
@@ -0,0 +1,173 @@
+package io.jenkins.plugins.jfrog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.Job;
+import hudson.model.Run;
+import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
+import io.jenkins.plugins.jfrog.callables.JFrogCliConfigWriter;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformBuilder;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.models.JFrogCliConfigModel;
+import io.jenkins.plugins.jfrog.plugins.PluginsUtils;
+import io.jenkins.plugins.jfrog.state.JFrogAccessTokens;
+import io.jenkins.plugins.jfrog.state.JFrogRunState;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.jenkins.plugins.jfrog.CliEnvConfigurator.JFROG_CLI_ENCRYPTION_KEY;
+import static io.jenkins.plugins.jfrog.models.JFrogCliConfigModel.CONFIG_FILE_NAME;
+import static org.jfrog.build.extractor.BuildInfoExtractorUtils.createMapper;
+
+/**
+ * Configures the JFrog Platform instances in the JFrog CLI config of the job.
+ * Instead of running 'jf c add' for each server, the whole config is generated in Jenkins and written to the agent at once.
+ **/
+public class CliServersConfigurator {
+    private static final ObjectMapper mapper = createMapper();
+    private static final Set<String> CONFIG_COMMANDS = Set.of("c", "config");
+    // Commands that read the server IDs from the build tool configs in '.jfrog/projects', which are written by the
+    // '*-config' commands, such as 'jf mvn-config --server-id-resolve=my-server'
+    private static final Set<String> BUILD_TOOL_COMMANDS = Set.of("mvn", "gradle", "npm", "npm-install", "npmi", "npm-ci",
+            "npm-publish", "npmp", "yarn", "pnpm", "pip", "pip-install", "pipenv", "poetry", "go", "go-publish", "gp",
+            "nuget", "dotnet", "terraform", "tf", "twine");
+    // The short names of the '*-config' commands
+    private static final Set<String> BUILD_TOOL_CONFIG_COMMANDS = Set.of("mvnc", "gradlec", "npmc", "yarnc", "pipc",
+            "pipenvc", "poetryc", "goc", "nugetc", "dotnetc", "tfc");
+    private static final String CONFIG_COMMAND_SUFFIX = "-config";
+    // Matches '--server-id', '--server-id-resolve', '--server-id-deploy' and any other server ID option
+    private static final String SERVER_ID_OPTION = "--server-id";
+
+    /**
+     * Get the servers the 'jf' command may use, in the order they were configured in Jenkins:
+     * 1. The first server, which is the default server of JFrog CLI
+     * 2. The servers provided in the '--server-id' options, such as '--server-id-resolve' and '--server-id-deploy'
+     * 3. Any other server whose ID is one of the arguments, for example 'jf rt transfer-files source-server target-server'
+     * The config commands, such as 'jf c use' or 'jf c export', may use any server. So may the build tool commands,
+     * such as 'jf mvn', and their '*-config' commands, because the server IDs are stored in '.jfrog/projects'.
+     *
+     * @param args           - The 'jf' command arguments
+     * @param jfrogInstances - All the servers configured in Jenkins
+     * @return the servers the command may use.
+     */
+    static List<JFrogPlatformInstance> getRequiredServers(String[] args, List<JFrogPlatformInstance> jfrogInstances) {
+        if (jfrogInstances.isEmpty() || mayUseAnyServer(args)) {
+            return jfrogInstances;
+        }
+        Set<String> referencedServerIds = new HashSet<>(Arrays.asList(args));
+        for (String arg : args) {
+            if (StringUtils.startsWith(arg, SERVER_ID_OPTION) && arg.contains("=")) {
+                referencedServerIds.add(StringUtils.substringAfter(arg, "="));
+            }
+        }
+        String defaultServerId = jfrogInstances.get(0).getId();
+        return jfrogInstances.stream()
+                .filter(instance -> instance.getId().equals(defaultServerId) || referencedServerIds.contains(instance.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Return true if the command may use servers that don't appear in its arguments.
+     * The command name is the first argument, or the second one in the legacy 'jf rt' namespace, like 'jf rt mvn'.
+     *
+     * @param args - The 'jf' command arguments
+     * @return true if the command may use any server.
+     */
+    private static boolean mayUseAnyServer(String[] args) {
+        if (args.length == 0) {
+            return false;
+        }
+        if (CONFIG_COMMANDS.contains(args[0])) {
+            return true;
+        }
+        String command = "rt".equals(args[0]) && args.length > 1 ? args[1] : args[0];
+        return BUILD_TOOL_COMMANDS.contains(command) || BUILD_TOOL_CONFIG_COMMANDS.contains(command) ||
+                StringUtils.endsWith(command, CONFIG_COMMAND_SUFFIX);
+    }
+
+    /**
+     * Add the input servers to the JFrog CLI config in the JFrog CLI home directory.
+     * Like JFrog CLI, the secrets are encrypted if the JFROG_CLI_ENCRYPTION_KEY environment variable is set.
+     *
+     * @param jfrogHomeDir    - The JFrog CLI home directory in the agent
+     * @param jfrogInstances  - The servers to configure
+     * @param defaultServerId - The ID of the default server
+     * @param run             - The running build, used to look up the servers' credentials
+     * @param env             - The JFrog CLI environment variables
+     * @throws IOException          in case of any I/O error
+     * @throws InterruptedException if the config writing is interrupted
+     */
+    static void configureServers(FilePath jfrogHomeDir, List<JFrogPlatformInstance> jfrogInstances, String defaultServerId,
+                                 Run<?, ?> run, EnvVars env) throws IOException, InterruptedException {
+        JFrogAccessTokens accessTokens = JFrogPlatformBuilder.useShortLivedTokens() ? JFrogRunState.get(run).getAccessTokens() : null;
+        JFrogCliConfigModel config = createConfig(jfrogInstances, defaultServerId, run.getParent(), env.get(JFROG_CLI_ENCRYPTION_KEY), accessTokens);
+        jfrogHomeDir.act(new JFrogCliConfigWriter(CONFIG_FILE_NAME, mapper.writeValueAsString(config)));
+    }
+
+    /**
+     * Create a JFrog CLI config with the input servers.
+     *
+     * @param jfrogInstances  - The servers to configure
+     * @param defaultServerId - The ID of the default server
+     * @param job             - The job, used to look up the servers' credentials
+     * @param encryptionKey   - The key to encrypt the secrets with, or null to keep them in plain text
+     * @param accessTokens    - The short-lived access tokens of the run, or null to use the configured credentials
+     * @return the JFrog CLI config.
+     * @throws IOException if a secret couldn't be encrypted
+     */
+    static JFrogCliConfigModel createConfig(List<JFrogPlatformInstance> jfrogInstances, String defaultServerId,
+                                            Job<?, ?> job, String encryptionKey, JFrogAccessTokens accessTokens) throws IOException {
+        JFrogCliConfigModel config = new JFrogCliConfigModel();
+        config.setEnc(StringUtils.isNotEmpty(encryptionKey));
+        // Resolve the credentials of all servers in a single lookup
+        Map<String, Credentials> credentials = PluginsUtils.credentialsLookup(jfrogInstances.stream()
+                .map(instance -> instance.getCredentialsConfig().getCredentialsId())
+                .collect(Collectors.toSet()), job);
+        for (JFrogPlatformInstance jfrogPlatformInstance : jfrogInstances) {
+            Credentials serverCredentials = credentials.get(jfrogPlatformInstance.getCredentialsConfig().getCredentialsId());
+            if (accessTokens != null) {
+                serverCredentials = accessTokens.getCredentials(jfrogPlatformInstance, serverCredentials);
+            }
+            JFrogCliConfigModel.Server server = createServer(jfrogPlatformInstance, serverCredentials, encryptionKey);
+            server.setDefaultServer(jfrogPlatformInstance.getId().equals(defaultServerId));
+            config.getServers().add(server);
+        }
+        return config;
+    }
+
+    private static JFrogCliConfigModel.Server createServer(JFrogPlatformInstance jfrogPlatformInstance, Credentials credentials,
+                                                           String encryptionKey) throws IOException {
+        JFrogCliConfigModel.Server server = new JFrogCliConfigModel.Server();
+        server.setServerId(jfrogPlatformInstance.getId());
+        // Add credentials
+        if (StringUtils.isNotEmpty(credentials.getPlainTextAccessToken())) {
+            server.setAccessToken(encryptSecret(credentials.getPlainTextAccessToken(), encryptionKey));
+        } else {
+            server.setUser(credentials.getPlainTextUsername());
+            server.setPassword(encryptSecret(credentials.getPlainTextPassword(), encryptionKey));
+        }
+        // Add URLs. Like 'jf c add', store them with a trailing slash.
+        server.setUrl(addTrailingSlash(jfrogPlatformInstance.getUrl()));
+        server.setArtifactoryUrl(addTrailingSlash(jfrogPlatformInstance.inferArtifactoryUrl()));
+        server.setDistributionUrl(addTrailingSlash(jfrogPlatformInstance.inferDistributionUrl()));
+        server.setXrayUrl(addTrailingSlash(jfrogPlatformInstance.inferXrayUrl()));
+        return server;
+    }
+
+    private static String encryptSecret(String secret, String encryptionKey) throws IOException {
+        return StringUtils.isEmpty(encryptionKey) ? secret : JFrogCliConfigEncryption.encrypt(secret, encryptionKey);
+    }
+
+    private static String addTrailingSlash(String url) {
+        return StringUtils.isBlank(url) ? url : StringUtils.appendIfMissing(url, "/");
+    }
+}
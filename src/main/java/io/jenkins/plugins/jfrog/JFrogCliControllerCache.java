@@ -0,0 +1,238 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.jfrog.callables.ArtifactoryManagerPool;
+import io.jenkins.plugins.jfrog.callables.JFrogCliDownloader;
+import io.jenkins.plugins.jfrog.callables.JFrogCliStore;
+import io.jenkins.plugins.jfrog.callables.JFrogCliStoreInstaller;
+import io.jenkins.plugins.jfrog.callables.LruDirectoryCap;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import jenkins.model.Jenkins;
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * A controller-side cache of JFrog CLI binaries.
+ * Each binary is downloaded to the controller once, verified, and streamed to the agents over the remoting channel.
+ * This prevents many agents from downloading the same binary at once, and allows installing JFrog CLI on agents
+ * that can't access Artifactory.
+ * The cache is kept under a size cap, by deleting the least recently used binaries.
+ **/
+public class JFrogCliControllerCache {
+    private static final Logger LOGGER = Logger.getLogger(JFrogCliControllerCache.class.getName());
+    static final String CACHE_DIR_NAME = "caches/jfrog-cli";
+    // The size cap of the cache in megabytes. 0 disables the cap.
+    static final long MAX_SIZE_MB = Long.getLong(JFrogCliControllerCache.class.getName() + ".maxSizeMb", 1024);
+    // The time to trust the sha256 computed for a binary that Artifactory returned without a sha256
+    static final long COMPUTED_SHA256_TTL_MILLIS = TimeUnit.MINUTES.toMillis(
+            Long.getLong(JFrogCliControllerCache.class.getName() + ".computedSha256TtlMinutes", 60));
+    // Limits the number of binaries streamed to agents at the same time
+    private static final Semaphore transfers = new Semaphore(Integer.getInteger(JFrogCliControllerCache.class.getName() + ".maxConcurrentTransfers", 10), true);
+    private static final Map<String, Object> downloadLocks = new ConcurrentHashMap<>();
+    // Keyed by the agent and its JFrog CLI store, so that the executors of an agent transfer a binary once
+    private static final Map<String, ReentrantLock> agentStoreLocks = new ConcurrentHashMap<>();
+    // Keyed by the binary URL
+    private static final Map<String, ComputedSha256> computedSha256s = new ConcurrentHashMap<>();
+
+    /**
+     * Install JFrog CLI in the agent's tool location, from the controller cache.
+     *
+     * @param toolLocation - The tool directory in the agent
+     * @param log          - The logger
+     * @param version      - The JFrog CLI version. An empty string indicates the latest version.
+     * @param instance     - The JFrog Platform instance to download JFrog CLI from
+     * @param repository   - The repository containing JFrog CLI
+     * @param binaryName   - The JFrog CLI binary name
+     * @return the tool location.
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if the installation is interrupted.
+     */
+    static FilePath install(FilePath toolLocation, TaskListener log, String version, JFrogPlatformInstance instance, String repository, String binaryName) throws IOException, InterruptedException {
+        String osDetails = OsUtils.getOsDetails(toolLocation);
+        String cliUrlSuffix = JFrogCliDownloader.getCliUrlSuffix(repository, version, osDetails, binaryName);
+        try (ArtifactoryManagerPool.Lease lease = ArtifactoryManagerPool.acquire(instance, new JenkinsProxyConfiguration(), new JenkinsBuildInfoLog(log))) {
+            ArtifactoryManager manager = lease.getManager();
+            String sha256 = JFrogCliSha256Cache.getSha256(instance, cliUrlSuffix);
+            if (sha256 == null) {
+                install(toolLocation, log, version, manager, instance.inferArtifactoryUrl(), osDetails, cliUrlSuffix,
+                        JFrogCliDownloader.getArtifactSha256(manager, cliUrlSuffix), binaryName);
+                return toolLocation;
+            }
+            try {
+                install(toolLocation, log, version, manager, instance.inferArtifactoryUrl(), osDetails, cliUrlSuffix, sha256, binaryName);
+            } catch (JFrogCliStore.Sha256MismatchException e) {
+                // A new JFrog CLI was released after the sha256 was cached. Retry once with the current sha256.
+                log.getLogger().printf("The cached sha256 of '%s' is outdated. Installing it again.%n", binaryName);
+                JFrogCliSha256Cache.invalidate(instance, cliUrlSuffix);
+                install(toolLocation, log, version, manager, instance.inferArtifactoryUrl(), osDetails, cliUrlSuffix,
+                        JFrogCliDownloader.getArtifactSha256(manager, cliUrlSuffix), binaryName);
+            }
+        }
+        return toolLocation;
+    }
+
+    /**
+     * Install JFrog CLI in the agent's tool location, from the controller cache.
+     *
+     * @param toolLocation   - The tool directory in the agent
+     * @param log            - The logger
+     * @param version        - The JFrog CLI version. An empty string indicates the latest version.
+     * @param manager        - The Artifactory manager to download JFrog CLI with
+     * @param artifactoryUrl - The Artifactory URL
+     * @param osDetails      - The OS/arch of the agent
+     * @param cliUrlSuffix   - The path of the JFrog CLI binary in Artifactory
+     * @param sha256         - The sha256 returned by Artifactory, or an empty string if Artifactory didn't return it
+     * @param binaryName     - The JFrog CLI binary name
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if the installation is interrupted.
+     */
+    static void install(FilePath toolLocation, TaskListener log, String version, ArtifactoryManager manager, String artifactoryUrl,
+                        String osDetails, String cliUrlSuffix, String sha256, String binaryName) throws IOException, InterruptedException {
+        Path binary = null;
+        if (StringUtils.isEmpty(sha256)) {
+            // Without the sha256, the agent can't tell if it has the binary, so the sha256 is taken from the cached binary
+            binary = getCachedBinary(manager, osDetails, cliUrlSuffix, sha256, log, version, artifactoryUrl, binaryName);
+            sha256 = binary.getParent().getFileName().toString();
+        }
+        try (Closeable ignored = lockAgentStore(toolLocation, binaryName)) {
+            // Checked after taking the lock, in case another executor of the agent has just transferred the binary.
+            // Skip the transfer if the agent already has this binary.
+            String tempFile = toolLocation.act(new JFrogCliStoreInstaller(binaryName, sha256, null));
+            if (tempFile == null) {
+                return;
+            }
+            if (binary == null) {
+                binary = getCachedBinary(manager, osDetails, cliUrlSuffix, sha256, log, version, artifactoryUrl, binaryName);
+            }
+            log.getLogger().printf("Transfer '%s' from the controller cache to the agent%n", binaryName);
+            transfers.acquire();
+            try {
+                new FilePath(toolLocation.getChannel(), tempFile).copyFrom(new FilePath(binary.toFile()));
+            } finally {
+                transfers.release();
+            }
+            // The agent verifies the sha256 of the transferred binary
+            toolLocation.act(new JFrogCliStoreInstaller(binaryName, binary.getParent().getFileName().toString(), tempFile));
+        }
+    }
+
+    /**
+     * Get the binary from the controller cache, and download it if needed. Only one download of a binary runs at a time.
+     * If Artifactory didn't return the sha256, the binary is looked up by the sha256 computed in a recent download.
+     */
+    private static Path getCachedBinary(ArtifactoryManager manager, String osDetails, String cliUrlSuffix, String sha256,
+                                        TaskListener log, String version, String artifactoryUrl, String binaryName) throws IOException, InterruptedException {
+        Path cacheDir = getCacheDir();
+        JFrogCliStore cache = new JFrogCliStore(cacheDir.resolve(osDetails), binaryName);
+        String url = artifactoryUrl + cliUrlSuffix;
+        Path binary = getCachedBinary(cache, sha256, url);
+        if (binary != null) {
+            return binary;
+        }
+        synchronized (downloadLocks.computeIfAbsent(cacheDir.resolve(osDetails).resolve(binaryName).toString(), key -> new Object())) {
+            binary = getCachedBinary(cache, sha256, url);
+            if (binary != null) {
+                return binary;
+            }
+            JFrogCliDownloader.logDownload(log, binaryName, version, url);
+            Path tempFile = cache.createTempFile();
+            try {
+                manager.downloadToFile(cliUrlSuffix, tempFile.toString());
+                binary = cache.add(tempFile, sha256);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            if (StringUtils.isEmpty(sha256)) {
+                computedSha256s.put(url, new ComputedSha256(binary.getParent().getFileName().toString(), System.currentTimeMillis()));
+            }
+        }
+        collectGarbage(cacheDir, MAX_SIZE_MB);
+        return binary;
+    }
+
+    /**
+     * @param cache  - The controller cache of the binary
+     * @param sha256 - The sha256 returned by Artifactory, or an empty string
+     * @param url    - The binary URL
+     * @return the cached binary, or null if it isn't in the cache.
+     */
+    private static Path getCachedBinary(JFrogCliStore cache, String sha256, String url) throws IOException {
+        if (StringUtils.isEmpty(sha256)) {
+            ComputedSha256 computedSha256 = computedSha256s.get(url);
+            if (computedSha256 == null || System.currentTimeMillis() - computedSha256.time >= COMPUTED_SHA256_TTL_MILLIS) {
+                return null;
+            }
+            sha256 = computedSha256.sha256;
+        }
+        Path binary = cache.get(sha256);
+        if (binary != null) {
+            // Mark the binary as recently used, to keep it in the cache
+            Files.setLastModifiedTime(binary.getParent(), FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        return binary;
+    }
+
+    /**
+     * Delete the least recently used binaries if the cache exceeds its size cap.
+     *
+     * @param cacheDir  - The controller cache directory
+     * @param maxSizeMb - The size cap of the cache in megabytes. 0 disables the cap.
+     */
+    static void collectGarbage(Path cacheDir, long maxSizeMb) throws IOException, InterruptedException {
+        String report = new LruDirectoryCap("JFrog CLI controller cache", maxSizeMb).apply(cacheDir);
+        if (report != null) {
+            LOGGER.fine(report);
+        }
+    }
+
+    /**
+     * Lock the JFrog CLI store of the agent, across the executors that install the binary to the agent.
+     *
+     * @param toolLocation - The tool directory in the agent. The store is shared by the tool directories of the agent.
+     * @param binaryName   - The JFrog CLI binary name
+     * @return the lock, to be released by closing it.
+     * @throws InterruptedException if interrupted while waiting for the lock.
+     */
+    private static Closeable lockAgentStore(FilePath toolLocation, String binaryName) throws InterruptedException {
+        Computer computer = toolLocation.toComputer();
+        FilePath toolsDir = toolLocation.getParent();
+        String key = (computer == null ? "" : computer.getName()) + "|" +
+                (toolsDir == null ? toolLocation : toolsDir).getRemote() + "|" + binaryName;
+        ReentrantLock lock = agentStoreLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lockInterruptibly();
+        return lock::unlock;
+    }
+
+    static Path getCacheDir() {
+        return Jenkins.get().getRootDir().toPath().resolve(CACHE_DIR_NAME);
+    }
+
+    static void clear() {
+        computedSha256s.clear();
+    }
+
+    private static class ComputedSha256 {
+        private final String sha256;
+        private final long time;
+
+        private ComputedSha256(String sha256, long time) {
+            this.sha256 = sha256;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.slaves.ComputerListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.LogTaskListener;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.Jenkins;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Installs all JFrog CLI tool installations on agents when they come online, so the first build on a new agent
+ * doesn't wait for the download. Enabled by {@link JfrogInstallation.DescriptorImpl#isPreinstallOnConnect()}.
+ * The installations run in the background, on a limited number of agents at a time.
+ */
+@SuppressWarnings("unused")
+@Extension
+public class JFrogCliPreinstaller extends ComputerListener {
+    private static final Logger LOGGER = Logger.getLogger(JFrogCliPreinstaller.class.getName());
+    // The number of agents to install JFrog CLI on concurrently
+    private static final int MAX_CONCURRENT_AGENTS = Integer.getInteger(JFrogCliPreinstaller.class.getName() + ".maxConcurrentAgents", 4);
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(MAX_CONCURRENT_AGENTS,
+            new NamingThreadFactory(new DaemonThreadFactory(), "JFrogCliPreinstaller"));
+
+    @Override
+    public void onOnline(Computer computer, TaskListener listener) {
+        JfrogInstallation[] installations = getInstallationsToPreinstall(computer);
+        if (installations.length == 0) {
+            return;
+        }
+        listener.getLogger().println("Scheduled the installation of JFrog CLI in the background");
+        executorService.submit(() -> preinstall(computer, installations));
+    }
+
+    /**
+     * @param computer - The agent that came online
+     * @return the JFrog CLI tool installations to install on the agent, or an empty array if preinstallation is
+     * disabled or the agent doesn't run builds.
+     */
+    static JfrogInstallation[] getInstallationsToPreinstall(Computer computer) {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return new JfrogInstallation[0];
+        }
+        JfrogInstallation.DescriptorImpl descriptor = jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class);
+        if (descriptor == null || !descriptor.isPreinstallOnConnect()) {
+            return new JfrogInstallation[0];
+        }
+        Node node = computer.getNode();
+        // Builds don't run on nodes without executors
+        if (node == null || node.getNumExecutors() == 0) {
+            return new JfrogInstallation[0];
+        }
+        return descriptor.getInstallations();
+    }
+
+    /**
+     * Install the JFrog CLI tool installations on the agent. Failures are logged, and the installation is retried
+     * when a build uses the tool.
+     *
+     * @param computer      - The agent
+     * @param installations - The JFrog CLI tool installations
+     */
+    static void preinstall(Computer computer, JfrogInstallation[] installations) {
+        TaskListener log = new LogTaskListener(LOGGER, Level.INFO);
+        for (JfrogInstallation installation : installations) {
+            // The agent may have disconnected while waiting for its turn
+            Node node = computer.getNode();
+            if (node == null || !computer.isOnline()) {
+                return;
+            }
+            String name = computer.getName().isEmpty() ? "controller" : computer.getName();
+            long start = System.currentTimeMillis();
+            log.getLogger().printf("Installing JFrog CLI '%s' on %s%n", installation.getName(), name);
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                String home = installation.forNode(node, log).getHome();
+                log.getLogger().printf("Installed JFrog CLI '%s' on %s in %s (%dms)%n", installation.getName(), name, home, System.currentTimeMillis() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, String.format("Couldn't install JFrog CLI '%s' on %s", installation.getName(), name), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.model.Computer;
+import io.jenkins.plugins.jfrog.callables.ArtifactoryManagerPool;
+import io.jenkins.plugins.jfrog.callables.JFrogCliDownloader;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import jenkins.model.Jenkins;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A controller-side cache of the JFrog CLI binaries sha256, as returned by Artifactory.
+ * Installations on agents that already have the latest binary don't need any request to Artifactory.
+ * Expired entries are still returned, while they are refreshed in the background (stale-while-revalidate).
+ * Failures are cached too, so that when the controller can't reach Artifactory, only the first installation waits
+ * for the request to fail. Until the failure expires, the agents resolve the sha256 themselves.
+ * The sha256 of the latest version changes when a new JFrog CLI is released. If a downloaded binary doesn't match the
+ * cached sha256, the installers invalidate it and install again with the sha256 returned by Artifactory.
+ **/
+public class JFrogCliSha256Cache {
+    private static final Logger LOGGER = Logger.getLogger(JFrogCliSha256Cache.class.getName());
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Get the sha256 of a JFrog CLI binary.
+     *
+     * @param instance     - The JFrog Platform instance to download JFrog CLI from
+     * @param cliUrlSuffix - The path of the JFrog CLI binary in Artifactory
+     * @return the sha256, an empty string if Artifactory doesn't return it, or null if the cache is disabled or the
+     * sha256 couldn't be resolved by the controller.
+     */
+    static String getSha256(JFrogPlatformInstance instance, String cliUrlSuffix) {
+        long ttlMillis = TimeUnit.MINUTES.toMillis(getTtlMinutes());
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        String key = instance.inferArtifactoryUrl() + cliUrlSuffix;
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.time >= ttlMillis && refreshing.add(key)) {
+                Computer.threadPoolForRemoting.submit(() -> {
+                    try {
+                        resolve(instance, cliUrlSuffix, key);
+                    } finally {
+                        refreshing.remove(key);
+                    }
+                });
+            }
+            // Null if the controller failed to resolve the sha256
+            return entry.sha256;
+        }
+        return resolve(instance, cliUrlSuffix, key);
+    }
+
+    /**
+     * Resolve the sha256 from Artifactory and cache it.
+     *
+     * @return the sha256, an empty string if Artifactory doesn't return it, or null if the request failed.
+     */
+    private static String resolve(JFrogPlatformInstance instance, String cliUrlSuffix, String key) {
+        String sha256;
+        try (ArtifactoryManagerPool.Lease lease = ArtifactoryManagerPool.acquire(instance, new JenkinsProxyConfiguration())) {
+            sha256 = JFrogCliDownloader.getArtifactSha256(lease.getManager(), cliUrlSuffix);
+        } catch (IOException e) {
+            // The agent will resolve the sha256 itself
+            LOGGER.log(Level.FINE, "Failed to resolve the sha256 of " + key + ": " + ExceptionUtils.getRootCauseMessage(e), e);
+            entries.put(key, new Entry(null, System.currentTimeMillis()));
+            return null;
+        }
+        // Without a sha256, the agent can't tell if its binary is up-to-date, so there is nothing to cache
+        if (StringUtils.isNotEmpty(sha256)) {
+            entries.put(key, new Entry(sha256, System.currentTimeMillis()));
+        }
+        return sha256;
+    }
+
+    /**
+     * Remove the cached sha256 of a JFrog CLI binary, after a downloaded binary didn't match it.
+     *
+     * @param instance     - The JFrog Platform instance to download JFrog CLI from
+     * @param cliUrlSuffix - The path of the JFrog CLI binary in Artifactory
+     */
+    static void invalidate(JFrogPlatformInstance instance, String cliUrlSuffix) {
+        entries.remove(instance.inferArtifactoryUrl() + cliUrlSuffix);
+    }
+
+    private static long getTtlMinutes() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return 0;
+        }
+        JfrogInstallation.DescriptorImpl descriptor = jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class);
+        return descriptor == null ? 0 : descriptor.getSha256CacheTtlMinutes();
+    }
+
+    static void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final String sha256;
+        private final long time;
+
+        private Entry(String sha256, long time) {
+            this.sha256 = sha256;
+            this.time = time;
+        }
+    }
+}
@@ -1,34 +1,55 @@
 package io.jenkins.plugins.jfrog;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hudson.*;
-import hudson.model.Job;
+import hudson.model.Computer;
 import hudson.model.Run;
 import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
 import hudson.util.ArgumentListBuilder;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import io.jenkins.plugins.jfrog.actions.BuildInfoBuildBadgeAction;
 import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
-import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.callables.JfProcessRunner;
+import io.jenkins.plugins.jfrog.callables.JfStepSetup;
 import io.jenkins.plugins.jfrog.configuration.JFrogPlatformBuilder;
 import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
 import io.jenkins.plugins.jfrog.models.BuildInfoOutputModel;
-import io.jenkins.plugins.jfrog.plugins.PluginsUtils;
+import io.jenkins.plugins.jfrog.models.JfStepResult;
+import io.jenkins.plugins.jfrog.state.JFrogRunState;
+import jenkins.model.Jenkins;
 import lombok.Getter;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.jenkinsci.plugins.plaincredentials.StringCredentials;
 import org.jenkinsci.plugins.workflow.steps.*;
 import org.jfrog.build.api.util.Log;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.springframework.security.core.Authentication;
 
 import javax.annotation.Nonnull;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static io.jenkins.plugins.jfrog.JfrogInstallation.JFROG_BINARY_PATH;
 import static org.apache.commons.lang3.StringUtils.*;
@@ -40,8 +61,15 @@ import static org.jfrog.build.extractor.BuildInfoExtractorUtils.createMapper;
 @Getter
 @SuppressWarnings("unused")
 public class JfStep extends Step {
+    private static final Logger LOGGER = Logger.getLogger(JfStep.class.getName());
     private static final ObjectMapper mapper = createMapper();
+    // The output kept in memory when returning the output in a file. Larger outputs are written to the file while the command runs.
+    static final long CAPTURE_MEMORY_LIMIT = Long.getLong(JfStep.class.getName() + ".captureMemoryLimit", 1024 * 1024);
     protected String[] args;
+    // A workspace relative path of a file to write the command output to. If set, the step returns the file path instead of the output.
+    private String returnStdoutFile;
+    // If true, the step returns a JfStepResult, and doesn't fail if the command fails.
+    private boolean returnResult;
 
     @DataBoundConstructor
     public JfStep(Object args) {
@@ -53,29 +81,87 @@ public class JfStep extends Step {
         this.args = split(args.toString());
     }
 
+    @DataBoundSetter
+    public void setReturnStdoutFile(String returnStdoutFile) {
+        this.returnStdoutFile = Util.fixEmptyAndTrim(returnStdoutFile);
+    }
+
+    @DataBoundSetter
+    public void setReturnResult(boolean returnResult) {
+        this.returnResult = returnResult;
+    }
+
     @Override
     public StepExecution start(StepContext context) {
-        return new Execution(args, context);
+        return new Execution(this, context);
     }
 
-    public static class Execution extends SynchronousNonBlockingStepExecution<String> {
+    /**
+     * Runs the 'jf' command asynchronously, so that no controller thread is held while the command is running.
+     * The agent setup runs on a bounded shared thread pool. The command is started and waited for on the agent, which
+     * pushes the exit code back to the controller. The controller only checks locally whether the exit code arrived.
+     */
+    public static class Execution extends StepExecution {
+        private static final long serialVersionUID = 1L;
+        private static final int MAX_THREADS = Integer.getInteger(JfStep.class.getName() + ".maxThreads", 10);
+        private static final ThreadPoolExecutor executorService = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamingThreadFactory(new DaemonThreadFactory(), "JfStep.Execution"));
+
+        static {
+            executorService.allowCoreThreadTimeOut(true);
+        }
+
         private final String[] args;
+        private final String returnStdoutFile;
+        private final boolean returnResult;
+        private transient volatile Future<?> task;
+        // Completed with the exit code of the 'jf' command
+        private transient volatile CompletableFuture<Integer> exitCode;
+        // The call to the agent that runs the 'jf' command
+        private transient volatile Future<Integer> remoteCall;
+        // The 'jf' process, if started by a decorated launcher in the controller
+        private transient volatile Proc proc;
+        private transient AtomicBoolean done;
+        private transient Run<?, ?> run;
+        private transient TaskListener listener;
+        private transient volatile CapturedOutputStream taskOutputStream;
+        private transient FilePath stdoutFile;
+        private transient JsonObjectDetector jsonObjectDetector;
+        private transient long startTime;
 
-        protected Execution(String[] args, @Nonnull StepContext context) {
+        protected Execution(JfStep step, @Nonnull StepContext context) {
             super(context);
-            this.args = args;
+            this.args = step.getArgs();
+            this.returnStdoutFile = step.getReturnStdoutFile();
+            this.returnResult = step.isReturnResult();
         }
 
         @Override
-        protected String run() throws Exception {
+        public boolean start() {
+            done = new AtomicBoolean();
+            startTime = System.currentTimeMillis();
+            Authentication auth = Jenkins.getAuthentication2();
+            task = executorService.submit(() -> {
+                try (ACLContext ignored = ACL.as2(auth)) {
+                    launch();
+                } catch (Throwable e) {
+                    onFailure(e);
+                }
+            });
+            return false;
+        }
+
+        /**
+         * Set up the agent and start the 'jf' command, without waiting for it to finish.
+         */
+        private void launch() throws Exception {
             // Get the step context
             Launcher launcher = getContext().get(Launcher.class);
             FilePath workspace = getContext().get(FilePath.class);
-            TaskListener listener = getContext().get(TaskListener.class);
             EnvVars env = getContext().get(EnvVars.class);
-            Run<?, ?> run = getContext().get(Run.class);
+            listener = getContext().get(TaskListener.class);
+            run = getContext().get(Run.class);
 
-            workspace.mkdirs();
             // Build the 'jf' command
             ArgumentListBuilder builder = new ArgumentListBuilder();
             boolean isWindows = !launcher.isUnix();
@@ -86,22 +172,248 @@ public class JfStep extends Step {
                 builder = builder.toWindowsCommand();
             }
 
-            String output;
-            try (ByteArrayOutputStream taskOutputStream = new ByteArrayOutputStream()) {
-                JfTaskListener jfTaskListener = new JfTaskListener(listener, taskOutputStream);
-                Launcher.ProcStarter jfLauncher = setupJFrogEnvironment(run, env, launcher, jfTaskListener, workspace, jfrogBinaryPath, isWindows);
-                // Running the 'jf' command
-                int exitValue = jfLauncher.cmds(builder).join();
-                output = taskOutputStream.toString(StandardCharsets.UTF_8);
-                if (exitValue != 0) {
+            if (returnStdoutFile != null) {
+                stdoutFile = workspace.child(returnStdoutFile);
+            }
+            taskOutputStream = new CapturedOutputStream(stdoutFile, CAPTURE_MEMORY_LIMIT);
+            jsonObjectDetector = new JsonObjectDetector();
+            JfTaskListener jfTaskListener = new JfTaskListener(listener, new TeeOutputStream(taskOutputStream, jsonObjectDetector));
+            Launcher.ProcStarter jfLauncher;
+            try (RemoteCallCounter remoteCalls = RemoteCallCounter.start(workspace.getChannel())) {
+                jfLauncher = setupJFrogEnvironment(run, env, launcher, jfTaskListener, workspace);
+                if (remoteCalls.isRemote()) {
+                    LOGGER.fine(() -> String.format("%s: the 'jf' step setup made %d remote calls to the agent", run, remoteCalls.getCalls()));
+                }
+            }
+            // Running the 'jf' command
+            exitCode = startCommand(launcher, jfLauncher.cmds(builder), workspace);
+            if (done.get()) {
+                // The step was stopped while the command was starting
+                killCommand();
+                closeTaskOutput();
+                return;
+            }
+            exitCode.whenComplete((exitValue, error) -> task = executorService.submit(this::complete));
+        }
+
+        /**
+         * Start the 'jf' command, and return a future that is completed with its exit code.
+         * The command is started and waited for on the agent, which completes the future through an exit listener
+         * exported to its channel. Launchers decorated by steps such as 'docker.inside' or 'container' must start the
+         * process themselves, so with them a thread of the Jenkins remoting pool waits for the process, as in other
+         * steps that run commands.
+         * If the agent disconnects, the future fails. Jenkins disconnects agents that stop responding to pings.
+         *
+         * @param launcher   - The launcher of the step
+         * @param jfLauncher - The 'jf' command
+         * @param workspace  - The workspace
+         * @return the exit code future.
+         */
+        private CompletableFuture<Integer> startCommand(Launcher launcher, Launcher.ProcStarter jfLauncher, FilePath workspace) throws IOException, InterruptedException {
+            CompletableFuture<Integer> result = new CompletableFuture<>();
+            if (launcher.getClass() == Launcher.LocalLauncher.class || launcher.getClass() == Launcher.RemoteLauncher.class) {
+                VirtualChannel channel = workspace.getChannel();
+                JfProcessRunner.ExitListener exitListener = new ExitCodeReceiver(result);
+                if (channel instanceof Channel) {
+                    exitListener = ((Channel) channel).export(JfProcessRunner.ExitListener.class, exitListener);
+                    failOnDisconnect((Channel) channel, result);
+                }
+                remoteCall = channel.callAsync(new JfProcessRunner(jfLauncher.cmds(), jfLauncher.envs(), jfLauncher.pwd().getRemote(),
+                        new RemoteOutputStream(jfLauncher.stdout()), new RemoteOutputStream(listener.getLogger()), exitListener, getExtractor(args)));
+                return result;
+            }
+            Proc proc = jfLauncher.start();
+            this.proc = proc;
+            Computer.threadPoolForRemoting.submit(() -> {
+                try {
+                    result.complete(proc.join());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * Fail the exit code future if the agent disconnects before the exit code arrives.
+         *
+         * @param channel  - The channel of the agent that runs the command
+         * @param exitCode - The exit code future
+         */
+        private static void failOnDisconnect(Channel channel, CompletableFuture<Integer> exitCode) {
+            Channel.Listener disconnectListener = new Channel.Listener() {
+                @Override
+                public void onClosed(Channel channel, IOException cause) {
+                    exitCode.completeExceptionally(cause != null ? cause : new IOException("The agent disconnected while running the 'jf' command"));
+                }
+            };
+            channel.addListener(disconnectListener);
+            exitCode.whenComplete((exitValue, error) -> channel.removeListener(disconnectListener));
+        }
+
+        /**
+         * Collect the exit code and the output of the finished 'jf' command, and complete the step.
+         */
+        private void complete() {
+            if (done.get()) {
+                // The step was stopped, which already closed the output
+                return;
+            }
+            Object output;
+            try {
+                int exitValue;
+                try {
+                    exitValue = exitCode.get();
+                } finally {
+                    taskOutputStream.close();
+                }
+                String stdout = taskOutputStream.toString();
+                if (exitValue != 0 && !returnResult) {
                     throw new RuntimeException("Running 'jf' command failed with exit code " + exitValue);
                 }
-                addBuildInfoActionIfNeeded(args, new JenkinsBuildInfoLog(listener), run, taskOutputStream);
-            } catch (Exception e) {
+                List<String> jsonObjects = jsonObjectDetector.getObjects();
+                if (exitValue == 0) {
+                    addBuildInfoActionIfNeeded(args, new JenkinsBuildInfoLog(listener), run, jsonObjects);
+                }
+                String stdoutFilePath = stdoutFile != null ? stdoutFile.getRemote() : null;
+                if (returnResult) {
+                    long duration = System.currentTimeMillis() - startTime;
+                    output = new JfStepResult(exitValue, duration, parseSummary(jsonObjects), stdoutFilePath == null ? stdout : null, stdoutFilePath);
+                } else {
+                    output = stdoutFilePath != null ? stdoutFilePath : stdout;
+                }
+            } catch (Throwable e) {
+                onFailure(e);
+                return;
+            }
+            if (done.compareAndSet(false, true)) {
+                getContext().onSuccess(output);
+            }
+        }
+
+        /**
+         * Parse the last JSON object printed by the command, such as the command summary.
+         *
+         * @param jsonObjects - The JSON objects detected in the task's output, from the oldest to the newest
+         * @return the parsed summary, or null if there isn't any.
+         */
+        private Map<String, Object> parseSummary(List<String> jsonObjects) {
+            for (int i = jsonObjects.size() - 1; i >= 0; i--) {
+                try {
+                    return mapper.readValue(jsonObjects.get(i), new TypeReference<LinkedHashMap<String, Object>>() {
+                    });
+                } catch (JsonProcessingException e) {
+                    LOGGER.fine(() -> "Skipping an illegal JSON in the 'jf' output: " + ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+            return null;
+        }
+
+        private void onFailure(Throwable e) {
+            if (done.compareAndSet(false, true)) {
                 String errorMessage = "Couldn't execute 'jf' command. " + ExceptionUtils.getRootCauseMessage(e);
-                throw new RuntimeException(errorMessage, e);
+                getContext().onFailure(new RuntimeException(errorMessage, e));
+            }
+        }
+
+        @Override
+        public void stop(@Nonnull Throwable cause) throws Exception {
+            if (done == null || !done.compareAndSet(false, true)) {
+                getContext().onFailure(cause);
+                return;
+            }
+            try {
+                Future<?> task = this.task;
+                if (task != null) {
+                    task.cancel(true);
+                }
+                killCommand();
+            } finally {
+                closeTaskOutput();
+            }
+            getContext().onFailure(cause);
+        }
+
+        /**
+         * Kill the running 'jf' command. Cancelling the call to the agent interrupts the agent thread that waits for
+         * the command, which kills the process.
+         */
+        private void killCommand() throws IOException, InterruptedException {
+            Future<Integer> remoteCall = this.remoteCall;
+            if (remoteCall != null) {
+                remoteCall.cancel(true);
+            }
+            Proc proc = this.proc;
+            if (proc != null) {
+                proc.kill();
+            }
+        }
+
+        /**
+         * Completes the exit code future when the 'jf' command exits, or fails to run.
+         */
+        private static class ExitCodeReceiver implements JfProcessRunner.ExitListener {
+            private final CompletableFuture<Integer> exitCode;
+
+            ExitCodeReceiver(CompletableFuture<Integer> exitCode) {
+                this.exitCode = exitCode;
+            }
+
+            @Override
+            public void onExit(int exitCode) {
+                this.exitCode.complete(exitCode);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                exitCode.completeExceptionally(cause);
+            }
+        }
+
+        /**
+         * Close the captured output of a stopped 'jf' command, so that the file of the output is written and released.
+         */
+        private void closeTaskOutput() {
+            CapturedOutputStream taskOutputStream = this.taskOutputStream;
+            if (taskOutputStream == null) {
+                return;
+            }
+            try {
+                taskOutputStream.close();
+            } catch (IOException e) {
+                LOGGER.warning("Couldn't close the output of the 'jf' command: " + ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+
+        @Override
+        public void onResume() {
+            getContext().onFailure(new Exception("Resume after a restart is not supported for the 'jf' step"));
+        }
+
+        @Override
+        public String getStatus() {
+            if (done == null || done.get()) {
+                return null;
+            }
+            return exitCode == null ? "setting up the 'jf' command" : "running the 'jf' command";
+        }
+
+        /**
+         * @param args - The 'jf' command arguments
+         * @return the directory name of the build-info extractor that the command uses, or null if it doesn't use one.
+         */
+        static String getExtractor(String[] args) {
+            if (args == null || args.length == 0) {
+                return null;
+            }
+            switch (args[0]) {
+                case "mvn":
+                    return "maven";
+                case "gradle":
+                    return "gradle";
+                default:
+                    return null;
             }
-            return output;
         }
 
         /**
@@ -142,144 +454,115 @@ public class JfStep extends Step {
         }
 
         /**
-         * Configure all JFrog relevant environment variables and all servers (if they haven't been configured yet).
+         * Configure all JFrog relevant environment variables and the servers required by the command (if they haven't been configured yet).
          *
          * @param run             running as part of a specific build
          * @param env             environment variables applicable to this step
          * @param launcher        a way to start processes
          * @param listener        a place to send output
          * @param workspace       a workspace to use for any file operations
-         * @param jfrogBinaryPath path to jfrog cli binary on the filesystem
-         * @param isWindows       is Windows the applicable OS
          * @return launcher applicable to this step.
          * @throws InterruptedException if the step is interrupted
          * @throws IOException          in case of any I/O error, or we failed to run the 'jf' command
          */
-        public Launcher.ProcStarter setupJFrogEnvironment(Run<?, ?> run, EnvVars env, Launcher launcher, TaskListener listener, FilePath workspace, String jfrogBinaryPath, boolean isWindows) throws IOException, InterruptedException {
-            JFrogCliConfigEncryption jfrogCliConfigEncryption = run.getAction(JFrogCliConfigEncryption.class);
-            if (jfrogCliConfigEncryption == null) {
-                // Set up the config encryption action to allow encrypting the JFrog CLI configuration and make sure we only create one key
-                jfrogCliConfigEncryption = new JFrogCliConfigEncryption(env);
-                run.addAction(jfrogCliConfigEncryption);
+        public Launcher.ProcStarter setupJFrogEnvironment(Run<?, ?> run, EnvVars env, Launcher launcher, TaskListener listener, FilePath workspace) throws IOException, InterruptedException {
+            JFrogRunState runState = JFrogRunState.get(run);
+            JFrogCliConfigEncryption jfrogCliConfigEncryption = runState.getConfigEncryption(env);
+            FilePath jfrogHomeTempDir;
+            Set<String> configuredServerIds = null;
+            boolean prepared = WithJFrogStep.isPrepared(env, workspace);
+            if (prepared) {
+                // An enclosing 'withJFrog' step already created the JFrog CLI home directory and configured all servers
+                jfrogHomeTempDir = JfStepSetup.getJfrogHomeDir(Utils.getWorkspaceList(), workspace, String.valueOf(run.getNumber()));
+            } else {
+                // Create the workspace and the JFrog CLI home directory, and read the configured servers in a single remote call
+                JfStepSetup.AgentSetup agentSetup = workspace.act(new JfStepSetup(Utils.getWorkspaceList(), String.valueOf(run.getNumber())));
+                jfrogHomeTempDir = new FilePath(workspace.getChannel(), agentSetup.getJfrogHomeDir());
+                configuredServerIds = agentSetup.getConfiguredServerIds();
             }
-            FilePath jfrogHomeTempDir = Utils.createAndGetJfrogCliHomeTempDir(workspace, String.valueOf(run.getNumber()));
             CliEnvConfigurator.configureCliEnv(env, jfrogHomeTempDir.getRemote(), jfrogCliConfigEncryption);
             Launcher.ProcStarter jfLauncher = launcher.launch().envs(env).pwd(workspace).stdout(listener);
-            // Configure all servers, skip if all server ids have already been configured.
-            if (shouldConfig(jfrogHomeTempDir)) {
-                logIfNoToolProvided(env, listener);
-                configAllServers(jfLauncher, jfrogBinaryPath, isWindows, run.getParent());
+            // The servers were configured before Jenkins restarted, and encrypted with a key that was lost
+            boolean keyLost = jfrogCliConfigEncryption.shouldEncrypt() && !runState.isConfigured(jfrogHomeTempDir) &&
+                    (prepared || !configuredServerIds.isEmpty());
+            if (keyLost) {
+                new JenkinsBuildInfoLog(listener).info("The JFrog CLI config was encrypted before Jenkins restarted. Configuring the servers again.");
             }
+            if (configuredServerIds != null || keyLost || JFrogPlatformBuilder.useShortLivedTokens()) {
+                // Configure the servers required by the command, skip the servers that have already been configured.
+                configRequiredServers(jfrogHomeTempDir, configuredServerIds, keyLost, run, env, listener);
+            }
+            runState.setConfigured(jfrogHomeTempDir);
             return jfLauncher;
         }
 
         /**
-         * Before we run a 'jf' command for the first time, we want to configure all servers first.
-         * We know that all servers have already been configured if there is a "jfrog-cli.conf" file in the ".jfrog" home directory.
+         * Locally configure the servers configured in the Jenkins UI, that are required by the command and haven't been
+         * configured yet. The JFrog CLI config is written to the agent in a single call, instead of running 'jf c add'
+         * for each server.
          *
-         * @param jfrogHomeTempDir - The temp ".jfrog" directory path.
-         */
-        private boolean shouldConfig(FilePath jfrogHomeTempDir) throws IOException, InterruptedException {
-            List<FilePath> filesList = jfrogHomeTempDir.list();
-            for (FilePath file : filesList) {
-                if (file.getName().contains("jfrog-cli.conf")) {
-                    return false;
-                }
-            }
-            return true;
-        }
-
-        /**
-         * Locally configure all servers that was configured in the Jenkins UI.
+         * @param jfrogHomeTempDir    - The temp ".jfrog" directory path
+         * @param configuredServerIds - The servers already configured in the temp ".jfrog" directory, or null if an
+         *                            enclosing 'withJFrog' step configured all servers
+         * @param allServers          - True to configure all servers again, in case they were encrypted with a lost key
+         * @param run                 - The running build, used to look up the servers' credentials
+         * @param env                 - The JFrog CLI environment variables
+         * @param listener            - Job's logger
          */
-        private void configAllServers(Launcher.ProcStarter launcher, String jfrogBinaryPath, boolean isWindows, Job<?, ?> job) throws IOException, InterruptedException {
-            // Config all servers using the 'jf c add' command.
+        private void configRequiredServers(FilePath jfrogHomeTempDir, Set<String> configuredServerIds, boolean allServers,
+                                           Run<?, ?> run, EnvVars env, TaskListener listener) throws IOException, InterruptedException {
             List<JFrogPlatformInstance> jfrogInstances = JFrogPlatformBuilder.getJFrogPlatformInstances();
-            if (jfrogInstances != null && !jfrogInstances.isEmpty()) {
-                for (JFrogPlatformInstance jfrogPlatformInstance : jfrogInstances) {
-                    // Build 'jf' command
-                    ArgumentListBuilder builder = new ArgumentListBuilder();
-                    addConfigArguments(builder, jfrogPlatformInstance, jfrogBinaryPath, job);
-                    if (isWindows) {
-                        builder = builder.toWindowsCommand();
-                    }
-                    // Running 'jf' command
-                    int exitValue = launcher.cmds(builder).join();
-                    if (exitValue != 0) {
-                        throw new RuntimeException("Running 'jf' command failed with exit code " + exitValue);
-                    }
-                }
+            if (jfrogInstances == null || jfrogInstances.isEmpty()) {
+                return;
             }
-        }
-
-        private void addConfigArguments(ArgumentListBuilder builder, JFrogPlatformInstance jfrogPlatformInstance, String jfrogBinaryPath, Job<?, ?> job) {
-            String credentialsId = jfrogPlatformInstance.getCredentialsConfig().getCredentialsId();
-            builder.add(jfrogBinaryPath).add("c").add("add").add(jfrogPlatformInstance.getId());
-            // Add credentials
-            StringCredentials accessTokenCredentials = PluginsUtils.accessTokenCredentialsLookup(credentialsId, job);
-            if (accessTokenCredentials != null) {
-                builder.addMasked("--access-token=" + accessTokenCredentials.getSecret().getPlainText());
-            } else {
-                Credentials credentials = PluginsUtils.credentialsLookup(credentialsId, job);
-                builder.add("--user=" + credentials.getUsername());
-                builder.addMasked("--password=" + credentials.getPassword());
+            // Short-lived access tokens may expire, so the servers are configured again with the current tokens of the run
+            boolean reconfigure = allServers || JFrogPlatformBuilder.useShortLivedTokens();
+            List<JFrogPlatformInstance> servers = allServers ? jfrogInstances : CliServersConfigurator.getRequiredServers(args, jfrogInstances);
+            List<JFrogPlatformInstance> missingServers = servers.stream()
+                    .filter(instance -> reconfigure || !configuredServerIds.contains(instance.getId()))
+                    .collect(Collectors.toList());
+            if (missingServers.isEmpty()) {
+                return;
+            }
+            if (configuredServerIds != null && configuredServerIds.isEmpty()) {
+                logIfNoToolProvided(env, listener);
             }
-            // Add URLs
-            builder.add("--url=" + jfrogPlatformInstance.getUrl());
-            builder.add("--artifactory-url=" + jfrogPlatformInstance.inferArtifactoryUrl());
-            builder.add("--distribution-url=" + jfrogPlatformInstance.inferDistributionUrl());
-            builder.add("--xray-url=" + jfrogPlatformInstance.inferXrayUrl());
-
-            builder.add("--interactive=false");
-            // The installation process takes place more than once per build, so we will configure the same server ID several times.
-            builder.add("--overwrite=true");
+            CliServersConfigurator.configureServers(jfrogHomeTempDir, missingServers, jfrogInstances.get(0).getId(), run, env);
         }
     }
+
     /**
      * Add build-info Action if the command is 'jf rt bp' or 'jf rt build-publish'.
      *
-     * @param log              - Task logger
-     * @param run              - The Jenkins project
-     * @param taskOutputStream - Task's output stream
+     * @param log         - Task logger
+     * @param run         - The Jenkins project
+     * @param jsonObjects - The JSON objects detected in the task's output, from the oldest to the newest
      */
-    static void addBuildInfoActionIfNeeded(String[] args, Log log, Run<?, ?> run, ByteArrayOutputStream taskOutputStream) {
+    static void addBuildInfoActionIfNeeded(String[] args, Log log, Run<?, ?> run, List<String> jsonObjects) {
         if (args.length < 2 ||
                 !args[0].equals("rt") ||
                 !equalsAny(args[1], "bp", "build-publish")) {
             return;
         }
 
-        // Search for '{' and '}' in the output of 'jf rt build-publish'
-        String taskOutput = taskOutputStream.toString(StandardCharsets.UTF_8);
-        taskOutput = substringBetween(taskOutput, "{", "}");
-        if (taskOutput == null) {
-            logIllegalBuildPublishOutput(log, taskOutputStream);
-            return;
-        }
-
-        // Parse the output into BuildInfoOutputModel to extract the build-info URL
-        BuildInfoOutputModel buildInfoOutputModel;
-        try {
-            buildInfoOutputModel = mapper.readValue("{" + taskOutput + "}", BuildInfoOutputModel.class);
-            if (buildInfoOutputModel == null) {
-                logIllegalBuildPublishOutput(log, taskOutputStream);
+        // The build-info URL is printed in the last JSON object of 'jf rt build-publish'
+        for (int i = jsonObjects.size() - 1; i >= 0; i--) {
+            // Parse the output into BuildInfoOutputModel to extract the build-info URL
+            BuildInfoOutputModel buildInfoOutputModel;
+            try {
+                buildInfoOutputModel = mapper.readValue(jsonObjects.get(i), BuildInfoOutputModel.class);
+            } catch (JsonProcessingException e) {
+                log.debug("Skipping an illegal JSON in the build-publish output: " + ExceptionUtils.getRootCauseMessage(e));
+                continue;
+            }
+            String buildInfoUrl = buildInfoOutputModel == null ? null : buildInfoOutputModel.getBuildInfoUiUrl();
+            // Add the build-info URL to the BuildInfoBuildBadgeAction of the run to show the build-info button
+            if (isNotBlank(buildInfoUrl)) {
+                BuildInfoBuildBadgeAction.addBuildInfoUrl(run, buildInfoUrl);
                 return;
             }
-        } catch (JsonProcessingException e) {
-            logIllegalBuildPublishOutput(log, taskOutputStream);
-            log.warn(ExceptionUtils.getRootCauseMessage(e));
-            return;
         }
-        String buildInfoUrl = buildInfoOutputModel.getBuildInfoUiUrl();
-
-        // Add the BuildInfoBuildBadgeAction action into the job to show the build-info button
-        if (isNotBlank(buildInfoUrl)) {
-            run.addAction(new BuildInfoBuildBadgeAction(buildInfoUrl));
-        }
-    }
-
-    private static void logIllegalBuildPublishOutput(Log log, ByteArrayOutputStream taskOutputStream) {
-        log.warn("Illegal build-publish output: " + taskOutputStream.toString(StandardCharsets.UTF_8));
+        log.warn("Illegal build-publish output: couldn't find the build-info URL");
     }
 
     @Extension
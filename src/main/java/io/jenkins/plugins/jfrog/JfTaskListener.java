@@ -5,25 +5,33 @@ import hudson.model.TaskListener;
 import hudson.remoting.RemoteOutputStream;
 import org.apache.commons.io.output.TeeOutputStream;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 
 /**
+ * A task listener that writes to the build log and captures the output of the 'jf' command.
+ * The logger is created once and reused, since the launcher requests it many times.
+ *
  * @author yahavi
  **/
 public class JfTaskListener implements TaskListener {
+    private static final long serialVersionUID = 1L;
     private final RemoteOutputStream output;
     private final TaskListener taskListener;
+    private transient PrintStream logger;
 
-    public JfTaskListener(TaskListener taskListener, ByteArrayOutputStream outputStream) {
+    public JfTaskListener(TaskListener taskListener, OutputStream outputStream) {
         this.output = new RemoteOutputStream(outputStream);
         this.taskListener = taskListener;
     }
 
     @NonNull
     @Override
-    public PrintStream getLogger() {
-        return new PrintStream(new TeeOutputStream(taskListener.getLogger(), output), true, StandardCharsets.UTF_8);
+    public synchronized PrintStream getLogger() {
+        if (logger == null) {
+            logger = new PrintStream(new TeeOutputStream(taskListener.getLogger(), output), true, StandardCharsets.UTF_8);
+        }
+        return logger;
     }
 }
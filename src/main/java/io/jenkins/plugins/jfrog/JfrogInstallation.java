@@ -89,6 +89,12 @@ public class JfrogInstallation extends ToolInstallation
     @Symbol("jfrog")
     @Extension
     public static final class DescriptorImpl extends ToolDescriptor<JfrogInstallation> {
+        // The time to trust the JFrog CLI sha256 returned by Artifactory before checking it again. 0 disables the cache.
+        private long sha256CacheTtlMinutes = 10;
+        // Install JFrog CLI on agents when they come online, instead of when a build first uses it
+        private boolean preinstallOnConnect;
+        // The size cap of the JFrog CLI dependencies directory in each agent. 0 disables the cap.
+        private long dependenciesDirMaxSizeMb = 1024;
 
         public DescriptorImpl() {
             super(JfrogInstallation.class);
@@ -101,6 +107,33 @@ public class JfrogInstallation extends ToolInstallation
             return "JFrog CLI";
         }
 
+        public long getSha256CacheTtlMinutes() {
+            return sha256CacheTtlMinutes;
+        }
+
+        public void setSha256CacheTtlMinutes(long sha256CacheTtlMinutes) {
+            this.sha256CacheTtlMinutes = Math.max(0, sha256CacheTtlMinutes);
+            save();
+        }
+
+        public boolean isPreinstallOnConnect() {
+            return preinstallOnConnect;
+        }
+
+        public void setPreinstallOnConnect(boolean preinstallOnConnect) {
+            this.preinstallOnConnect = preinstallOnConnect;
+            save();
+        }
+
+        public long getDependenciesDirMaxSizeMb() {
+            return dependenciesDirMaxSizeMb;
+        }
+
+        public void setDependenciesDirMaxSizeMb(long dependenciesDirMaxSizeMb) {
+            this.dependenciesDirMaxSizeMb = Math.max(0, dependenciesDirMaxSizeMb);
+            save();
+        }
+
         @Override
         public JfrogInstallation newInstance(StaplerRequest req, JSONObject formData) throws FormException {
             return (JfrogInstallation) super.newInstance(req, formData.getJSONObject("jfrog"));
@@ -119,6 +152,15 @@ public class JfrogInstallation extends ToolInstallation
             Jenkins jenkins = Jenkins.getInstanceOrNull();
             if (jenkins != null && jenkins.hasPermission(Jenkins.ADMINISTER)) {
                 super.configure(req, o);
+                if (o.has("sha256CacheTtlMinutes")) {
+                    sha256CacheTtlMinutes = Math.max(0, o.getLong("sha256CacheTtlMinutes"));
+                }
+                if (o.has("preinstallOnConnect")) {
+                    preinstallOnConnect = o.getBoolean("preinstallOnConnect");
+                }
+                if (o.has("dependenciesDirMaxSizeMb")) {
+                    dependenciesDirMaxSizeMb = Math.max(0, o.getLong("dependenciesDirMaxSizeMb"));
+                }
                 save();
                 return true;
             }
@@ -0,0 +1,103 @@
+package io.jenkins.plugins.jfrog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Detects the top-level JSON objects in the output of a 'jf' command while it is written.
+ * JFrog CLI prints its JSON results at the beginning of a line, so objects starting in the middle of a log line, or
+ * indented objects inside a JSON array (such as search results), are ignored.
+ * Nested objects and braces inside strings are tracked, so the detected objects are complete.
+ * Memory is bounded: objects larger than the maximum size are dropped, and only the last objects are kept.
+ * Braces and quotes are ASCII, so the output is scanned as UTF-8 bytes without decoding it.
+ **/
+public class JsonObjectDetector extends OutputStream {
+    static final int MAX_OBJECT_SIZE = 64 * 1024;
+    static final int MAX_OBJECTS = 8;
+
+    private final Deque<String> objects = new ArrayDeque<>();
+    private final ByteArrayOutputStream current = new ByteArrayOutputStream();
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean lineStart = true;
+
+    @Override
+    public synchronized void write(int b) {
+        scan(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            scan(b[i]);
+        }
+    }
+
+    private void scan(int b) {
+        if (depth == 0) {
+            if (b == '{' && lineStart) {
+                depth = 1;
+                current.write(b);
+            }
+            lineStart = b == '\n';
+            return;
+        }
+        current.write(b);
+        if (current.size() > MAX_OBJECT_SIZE) {
+            reset();
+            return;
+        }
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+            }
+            return;
+        }
+        switch (b) {
+            case '"':
+                inString = true;
+                break;
+            case '{':
+                depth++;
+                break;
+            case '}':
+                if (--depth == 0) {
+                    addObject(current.toString(StandardCharsets.UTF_8));
+                    reset();
+                }
+                break;
+            default:
+        }
+    }
+
+    /**
+     * @return the last detected JSON objects, from the oldest to the newest.
+     */
+    public synchronized List<String> getObjects() {
+        return new ArrayList<>(objects);
+    }
+
+    private void addObject(String object) {
+        if (objects.size() == MAX_OBJECTS) {
+            objects.removeFirst();
+        }
+        objects.addLast(object);
+    }
+
+    private void reset() {
+        current.reset();
+        depth = 0;
+        inString = false;
+        escaped = false;
+    }
+}
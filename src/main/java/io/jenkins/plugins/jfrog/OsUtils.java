@@ -1,5 +1,10 @@
 package io.jenkins.plugins.jfrog;
 
+import hudson.FilePath;
+import hudson.remoting.Channel;
+import hudson.remoting.ChannelProperty;
+import hudson.remoting.VirtualChannel;
+import io.jenkins.plugins.jfrog.callables.OsDetailsGetter;
 import org.apache.commons.lang3.SystemUtils;
 
 import java.io.IOException;
@@ -9,6 +14,28 @@ import java.io.IOException;
  */
 public class OsUtils {
     private static final String OS_ARCH = System.getProperty("os.arch").toLowerCase();
+    private static final ChannelProperty<String> OS_DETAILS = new ChannelProperty<>(String.class, "JFrog CLI OS details");
+
+    /**
+     * Get the OS/arch of the node containing the given path. The result is kept on the agent's channel, to get it
+     * once per connection.
+     *
+     * @param location - A path in the node
+     * @return the OS/arch of the node.
+     */
+    public static String getOsDetails(FilePath location) throws IOException, InterruptedException {
+        VirtualChannel channel = location.getChannel();
+        if (!(channel instanceof Channel)) {
+            // The built-in node
+            return getOsDetails();
+        }
+        String osDetails = ((Channel) channel).getProperty(OS_DETAILS);
+        if (osDetails == null) {
+            osDetails = channel.call(new OsDetailsGetter());
+            ((Channel) channel).setProperty(OS_DETAILS, osDetails);
+        }
+        return osDetails;
+    }
 
     public static String getOsDetails() throws IOException {
         // Windows
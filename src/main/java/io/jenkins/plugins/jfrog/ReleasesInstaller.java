@@ -1,6 +1,9 @@
 package io.jenkins.plugins.jfrog;
 
 import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Node;
+import hudson.model.TaskListener;
 import hudson.tools.ToolInstallation;
 import hudson.util.FormValidation;
 import io.jenkins.plugins.jfrog.configuration.Credentials;
@@ -13,6 +16,7 @@ import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.verb.POST;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 
 /**
  * Download and install Jfrog CLI from 'releases.jfrog.io'.
@@ -38,12 +42,15 @@ public class ReleasesInstaller extends ArtifactoryInstaller {
         return RELEASES_REPOSITORY;
     }
 
+    @Override
+    public FilePath performInstallation(ToolInstallation tool, Node node, TaskListener log) throws IOException, InterruptedException {
+        return performInstallation(tool, node, log, getReleasesServer());
+    }
+
     /**
      * @return The JFrogPlatformInstance matches 'Releases.jfrog.io' with only the relevant Artifactory URL and no credentials.
      */
-
-    @Override
-    JFrogPlatformInstance getSpecificServer(String id) {
+    private static JFrogPlatformInstance getReleasesServer() {
         CredentialsConfig emptyCred = new CredentialsConfig(StringUtils.EMPTY, Credentials.EMPTY_CREDENTIALS);
         return new JFrogPlatformInstance(StringUtils.EMPTY, StringUtils.EMPTY, emptyCred, RELEASES_ARTIFACTORY_URL, StringUtils.EMPTY, StringUtils.EMPTY);
     }
@@ -0,0 +1,61 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.remoting.Channel;
+import hudson.remoting.Request;
+import hudson.remoting.Response;
+import hudson.remoting.VirtualChannel;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the round-trips to an agent over its remoting channel while the counter is open, including the calls made
+ * by Jenkins core on behalf of the caller, such as context lookups and file checks.
+ * The count also includes the calls of anything else using the channel at the same time, such as parallel steps.
+ * Nothing is counted for the built-in node, which has no remoting channel.
+ */
+class RemoteCallCounter extends Channel.Listener implements Closeable {
+    private final Channel channel;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private RemoteCallCounter(Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Start counting the round-trips over the channel.
+     *
+     * @param channel - The channel of the agent
+     * @return the counter, to be closed when the counted operation is done.
+     */
+    static RemoteCallCounter start(VirtualChannel channel) {
+        RemoteCallCounter counter = new RemoteCallCounter(channel instanceof Channel ? (Channel) channel : null);
+        if (counter.channel != null) {
+            counter.channel.addListener(counter);
+        }
+        return counter;
+    }
+
+    @Override
+    public void onResponse(Channel channel, Request<?, ?> req, Response<?, ?> rsp, long totalTime) {
+        calls.incrementAndGet();
+    }
+
+    /**
+     * @return true if the channel is a remoting channel, whose calls are counted.
+     */
+    boolean isRemote() {
+        return channel != null;
+    }
+
+    int getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            channel.removeListener(this);
+        }
+    }
+}
@@ -54,9 +54,14 @@ public class Utils {
      * Create a temporary jfrog cli home directory under a given workspace
      */
     public static FilePath createAndGetTempDir(final FilePath ws) throws IOException, InterruptedException {
-        // The token that combines the project name and unique number to create unique workspace directory.
-        String workspaceList = System.getProperty("hudson.slaves.WorkspaceList");
-        return ws.act(new TempDirCreator(workspaceList, ws));
+        return ws.act(new TempDirCreator(getWorkspaceList(), ws));
+    }
+
+    /**
+     * @return the token that combines the project name and unique number to create unique workspace directory.
+     */
+    public static String getWorkspaceList() {
+        return System.getProperty("hudson.slaves.WorkspaceList");
     }
 
     public static FilePath createAndGetJfrogCliHomeTempDir(final FilePath ws, String buildNumber) throws IOException, InterruptedException {
@@ -0,0 +1,140 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
+import io.jenkins.plugins.jfrog.callables.JfStepSetup;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformBuilder;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.state.JFrogRunState;
+import org.apache.commons.lang3.StringUtils;
+import org.jenkinsci.plugins.workflow.steps.*;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A block step that prepares the JFrog CLI home directory and configures all JFrog Platform instances once.
+ * The 'jf' steps inside the block skip the agent setup, as long as they run in the same node and workspace.
+ **/
+public class WithJFrogStep extends Step {
+    // The node and workspace prepared by the enclosing 'withJFrog' step
+    static final String JFROG_CLI_PREPARED_WORKSPACE = "JFROG_CLI_PREPARED_WORKSPACE";
+
+    @DataBoundConstructor
+    public WithJFrogStep() {
+    }
+
+    @Override
+    public StepExecution start(StepContext context) {
+        return new Execution(context);
+    }
+
+    /**
+     * @param env       - The environment variables of the 'jf' step
+     * @param workspace - The workspace of the 'jf' step
+     * @return true if the node and workspace of the 'jf' step were prepared by an enclosing 'withJFrog' step.
+     */
+    static boolean isPrepared(EnvVars env, FilePath workspace) {
+        return StringUtils.equals(env.get(JFROG_CLI_PREPARED_WORKSPACE), getPreparedWorkspace(env, workspace));
+    }
+
+    private static String getPreparedWorkspace(EnvVars env, FilePath workspace) {
+        // Node names can't contain '|'
+        return env.get("NODE_NAME", "") + "|" + workspace.getRemote();
+    }
+
+    public static class Execution extends GeneralNonBlockingStepExecution {
+        private static final long serialVersionUID = 1L;
+
+        protected Execution(@Nonnull StepContext context) {
+            super(context);
+        }
+
+        @Override
+        public boolean start() throws Exception {
+            run(this::setup);
+            return false;
+        }
+
+        private void setup() throws Exception {
+            FilePath workspace = getContext().get(FilePath.class);
+            EnvVars env = getContext().get(EnvVars.class);
+            Run<?, ?> run = getContext().get(Run.class);
+
+            JFrogRunState runState = JFrogRunState.get(run);
+            JFrogCliConfigEncryption jfrogCliConfigEncryption = runState.getConfigEncryption(env);
+            JfStepSetup.AgentSetup agentSetup = workspace.act(new JfStepSetup(Utils.getWorkspaceList(), String.valueOf(run.getNumber())));
+            FilePath jfrogHomeTempDir = new FilePath(workspace.getChannel(), agentSetup.getJfrogHomeDir());
+            // The CLI environment is only used to configure the servers. The 'jf' steps set it up for their own process.
+            EnvVars cliEnv = new EnvVars(env);
+            CliEnvConfigurator.configureCliEnv(cliEnv, jfrogHomeTempDir.getRemote(), jfrogCliConfigEncryption);
+            Set<String> configuredServerIds = agentSetup.getConfiguredServerIds();
+            if (jfrogCliConfigEncryption.shouldEncrypt() && !configuredServerIds.isEmpty() && !runState.isConfigured(jfrogHomeTempDir)) {
+                // The servers were configured before Jenkins restarted, and encrypted with a key that was lost
+                configuredServerIds = Set.of();
+            }
+            configAllServers(jfrogHomeTempDir, configuredServerIds, run, cliEnv);
+            runState.setConfigured(jfrogHomeTempDir);
+
+            EnvironmentExpander expander = EnvironmentExpander.constant(Map.of(JFROG_CLI_PREPARED_WORKSPACE, getPreparedWorkspace(env, workspace)));
+            getContext().newBodyInvoker()
+                    .withContext(EnvironmentExpander.merge(getContext().get(EnvironmentExpander.class), expander))
+                    .withCallback(BodyExecutionCallback.wrap(getContext()))
+                    .start();
+        }
+
+        /**
+         * Configure all servers configured in the Jenkins UI, that haven't been configured yet.
+         *
+         * @param jfrogHomeTempDir    - The temp ".jfrog" directory path
+         * @param configuredServerIds - The servers already configured in the temp ".jfrog" directory
+         * @param run                 - The running build, used to look up the servers' credentials
+         * @param env                 - The JFrog CLI environment variables
+         */
+        private void configAllServers(FilePath jfrogHomeTempDir, Set<String> configuredServerIds, Run<?, ?> run, EnvVars env) throws IOException, InterruptedException {
+            List<JFrogPlatformInstance> jfrogInstances = JFrogPlatformBuilder.getJFrogPlatformInstances();
+            if (jfrogInstances == null || jfrogInstances.isEmpty()) {
+                return;
+            }
+            List<JFrogPlatformInstance> missingServers = jfrogInstances.stream()
+                    .filter(instance -> !configuredServerIds.contains(instance.getId()))
+                    .collect(Collectors.toList());
+            if (!missingServers.isEmpty()) {
+                CliServersConfigurator.configureServers(jfrogHomeTempDir, missingServers, jfrogInstances.get(0).getId(), run, env);
+            }
+        }
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+        @Override
+        public String getFunctionName() {
+            return "withJFrog";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Set up JFrog CLI for the nested jf steps";
+        }
+
+        @Override
+        public boolean takesImplicitBlockArgument() {
+            return true;
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Run.class, FilePath.class, TaskListener.class, EnvVars.class);
+        }
+    }
+}
@@ -1,15 +1,66 @@
 package io.jenkins.plugins.jfrog.actions;
 
 import hudson.model.BuildBadgeAction;
+import hudson.model.Run;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents the build-info URL Action with the Artifactory icon.
+ * A single action holds the URLs of all build-info published by the run.
  */
 public class BuildInfoBuildBadgeAction implements BuildBadgeAction {
-    private final String url;
+    // Serializes the creation of the actions, without locking the run, which Jenkins core also locks
+    private static final Object addLock = new Object();
+    private List<String> urls;
+    // Read from builds saved with an action per build-info. Null fields aren't saved.
+    private String url;
 
     public BuildInfoBuildBadgeAction(String url) {
-        this.url = url;
+        this.urls = new ArrayList<>(Collections.singletonList(url));
+    }
+
+    /**
+     * Add a published build-info URL to the action of the run, and create the action if needed.
+     *
+     * @param run - The running build
+     * @param url - The build-info URL
+     */
+    public static void addBuildInfoUrl(Run<?, ?> run, String url) {
+        synchronized (addLock) {
+            BuildInfoBuildBadgeAction action = run.getAction(BuildInfoBuildBadgeAction.class);
+            if (action == null) {
+                run.addAction(new BuildInfoBuildBadgeAction(url));
+                return;
+            }
+            action.addUrl(url);
+        }
+    }
+
+    private synchronized void addUrl(String url) {
+        if (!urls.contains(url)) {
+            urls.add(url);
+        }
+    }
+
+    protected Object readResolve() {
+        if (urls == null) {
+            urls = new ArrayList<>();
+            if (url != null) {
+                urls.add(url);
+            }
+            url = null;
+        }
+        return this;
+    }
+
+    /**
+     * @return the URLs of the build-info published by the run.
+     */
+    public synchronized List<String> getUrls() {
+        return new ArrayList<>(urls);
     }
 
     public String getIconFileName() {
@@ -20,7 +71,10 @@ public class BuildInfoBuildBadgeAction implements BuildBadgeAction {
         return "Artifactory Build Info";
     }
 
-    public String getUrlName() {
-        return this.url;
+    /**
+     * @return the URL of the last published build-info.
+     */
+    public synchronized String getUrlName() {
+        return urls.isEmpty() ? null : urls.get(urls.size() - 1);
     }
 }
@@ -2,17 +2,32 @@ package io.jenkins.plugins.jfrog.actions;
 
 import hudson.EnvVars;
 import hudson.model.Action;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.UUID;
 
 import static io.jenkins.plugins.jfrog.CliEnvConfigurator.JFROG_CLI_HOME_DIR;
 
 /**
- * This action is injected to the JfStep in order to generate a random key that encrypts the JFrog CLI config.
+ * A random key that encrypts the JFrog CLI config of a run. The key is kept in the {@link io.jenkins.plugins.jfrog.state.JFrogRunState} of the run.
+ * It implements {@link Action} only to load builds that saved the key in their build.xml file.
  *
  * @author yahavi
  **/
 public class JFrogCliConfigEncryption implements Action {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Matches the AES-GCM parameters used by JFrog CLI to encrypt secrets in its config
+    private static final int GCM_NONCE_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH_BITS = 128;
     private boolean shouldEncrypt;
     private String key;
 
@@ -35,6 +50,32 @@ public class JFrogCliConfigEncryption implements Action {
         return shouldEncrypt;
     }
 
+    /**
+     * Encrypt a secret the same way JFrog CLI encrypts secrets in its config when JFROG_CLI_ENCRYPTION_KEY is set.
+     * The result is the base64 encoding of the random nonce followed by the AES-GCM sealed secret.
+     *
+     * @param secret - The secret to encrypt
+     * @param key    - The encryption key
+     * @return the encrypted secret, or the input secret if it is empty.
+     * @throws IOException if the secret couldn't be encrypted.
+     */
+    public static String encrypt(String secret, String key) throws IOException {
+        if (StringUtils.isEmpty(secret)) {
+            return secret;
+        }
+        try {
+            byte[] nonce = new byte[GCM_NONCE_LENGTH];
+            RANDOM.nextBytes(nonce);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES"),
+                    new GCMParameterSpec(GCM_TAG_LENGTH_BITS, nonce));
+            byte[] sealed = cipher.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ArrayUtils.addAll(nonce, sealed));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Failed to encrypt the JFrog CLI config", e);
+        }
+    }
+
     @Override
     public String getIconFileName() {
         return null;
@@ -0,0 +1,273 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A JVM-wide pool of Artifactory managers used to download JFrog CLI, keyed by a digest of the Artifactory URL,
+ * the credentials and the proxy. Reusing a manager reuses its HTTP connections, so consecutive installations from the
+ * same server skip the connection and TLS handshakes.
+ * Managers are shared by concurrent installations, and are closed after being idle for a while. If the pool is full
+ * and all pooled managers are in use, a manager is created for the caller and closed when released.
+ * Pooled managers outlive the installation that created them, so they log to the log of the lease held by the
+ * calling thread, or to the JVM log if the lease has no log.
+ */
+public class ArtifactoryManagerPool {
+    private static final Logger LOGGER = Logger.getLogger(ArtifactoryManagerPool.class.getName());
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong(ArtifactoryManagerPool.class.getName() + ".idleTimeoutMinutes", 5));
+    static final int MAX_MANAGERS = Integer.getInteger(ArtifactoryManagerPool.class.getName() + ".maxManagers", 8);
+    // Guarded by the class lock. Ordered by access, so the least recently used managers are evicted first.
+    private static final Map<String, PooledManager> managers = new LinkedHashMap<>(16, 0.75f, true);
+    // The log of the lease held by the current thread. The managers send their requests in the calling thread.
+    private static final ThreadLocal<Log> leaseLog = new ThreadLocal<>();
+    static final Log log = new LeaseLog();
+    private static ScheduledExecutorService evictor;
+
+    /**
+     * Get a manager for the instance, which logs to the JVM log. The manager must be released by closing the returned lease.
+     *
+     * @param instance           - The JFrog Platform instance
+     * @param proxyConfiguration - The Jenkins proxy configuration
+     * @return a lease of the manager.
+     */
+    public static Lease acquire(JFrogPlatformInstance instance, JenkinsProxyConfiguration proxyConfiguration) {
+        return acquire(instance, proxyConfiguration, null);
+    }
+
+    /**
+     * Get a manager for the instance. The manager must be released by closing the returned lease, in the same thread.
+     *
+     * @param instance           - The JFrog Platform instance
+     * @param proxyConfiguration - The Jenkins proxy configuration
+     * @param callerLog          - The log of the caller, used by the manager until the lease is released, or null
+     * @return a lease of the manager.
+     */
+    public static Lease acquire(JFrogPlatformInstance instance, JenkinsProxyConfiguration proxyConfiguration, Log callerLog) {
+        return new Lease(acquirePooled(instance, proxyConfiguration), callerLog);
+    }
+
+    private static synchronized PooledManager acquirePooled(JFrogPlatformInstance instance, JenkinsProxyConfiguration proxyConfiguration) {
+        long now = System.currentTimeMillis();
+        evictIdle(now);
+        String key = getKey(instance, proxyConfiguration);
+        PooledManager pooled = managers.get(key);
+        if (pooled == null) {
+            ArtifactoryManager manager = JFrogCliDownloader.createManager(instance, proxyConfiguration, log);
+            if (managers.size() >= MAX_MANAGERS && !evictLeastRecentlyUsed()) {
+                // All pooled managers are in use
+                pooled = new PooledManager(manager, false);
+            } else {
+                pooled = new PooledManager(manager, true);
+                managers.put(key, pooled);
+                scheduleEviction();
+            }
+        }
+        pooled.references++;
+        return pooled;
+    }
+
+    private static synchronized void release(PooledManager pooled) {
+        pooled.references--;
+        pooled.lastUsed = System.currentTimeMillis();
+        if (!pooled.pooled && pooled.references == 0) {
+            pooled.manager.close();
+        }
+    }
+
+    /**
+     * Close the managers that were not used since the idle timeout.
+     *
+     * @param now - The current time in milliseconds
+     */
+    static synchronized void evictIdle(long now) {
+        Iterator<PooledManager> iterator = managers.values().iterator();
+        while (iterator.hasNext()) {
+            PooledManager pooled = iterator.next();
+            if (pooled.references == 0 && now - pooled.lastUsed >= IDLE_TIMEOUT_MILLIS) {
+                iterator.remove();
+                pooled.pooled = false;
+                pooled.manager.close();
+            }
+        }
+    }
+
+    /**
+     * @return true if an unused manager was closed to make room for a new one.
+     */
+    private static boolean evictLeastRecentlyUsed() {
+        Iterator<PooledManager> iterator = managers.values().iterator();
+        while (iterator.hasNext()) {
+            PooledManager pooled = iterator.next();
+            if (pooled.references == 0) {
+                iterator.remove();
+                pooled.pooled = false;
+                pooled.manager.close();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory(new DaemonThreadFactory(), "ArtifactoryManagerPool"));
+            long period = Math.max(1000, IDLE_TIMEOUT_MILLIS / 2);
+            evictor.scheduleAtFixedRate(() -> evictIdle(System.currentTimeMillis()), period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    static synchronized int size() {
+        return managers.size();
+    }
+
+    /**
+     * @return a digest of the URL, the credentials and the proxy of the manager, so the pool doesn't hold the secrets.
+     */
+    static String getKey(JFrogPlatformInstance instance, JenkinsProxyConfiguration proxyConfiguration) {
+        String artifactoryUrl = instance.inferArtifactoryUrl();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, artifactoryUrl);
+            update(digest, Secret.toString(instance.getCredentialsConfig().getUsername()));
+            update(digest, Secret.toString(instance.getCredentialsConfig().getPassword()));
+            update(digest, Secret.toString(instance.getCredentialsConfig().getAccessToken()));
+            if (proxyConfiguration.isProxyConfigured(artifactoryUrl)) {
+                update(digest, proxyConfiguration.host);
+                update(digest, String.valueOf(proxyConfiguration.port));
+                update(digest, proxyConfiguration.username);
+                update(digest, proxyConfiguration.password);
+            }
+            return Util.toHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        // Prefixed by the length, so that different values don't produce the same input
+        digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    /**
+     * A manager acquired from the pool. Closing the lease releases the manager.
+     */
+    public static class Lease implements Closeable {
+        private final PooledManager pooled;
+        private final Log previousLog;
+        private boolean released;
+
+        private Lease(PooledManager pooled, Log callerLog) {
+            this.pooled = pooled;
+            this.previousLog = leaseLog.get();
+            if (callerLog != null) {
+                leaseLog.set(callerLog);
+            }
+        }
+
+        public ArtifactoryManager getManager() {
+            return pooled.manager;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                if (previousLog == null) {
+                    leaseLog.remove();
+                } else {
+                    leaseLog.set(previousLog);
+                }
+                release(pooled);
+            }
+        }
+    }
+
+    private static class PooledManager {
+        private final ArtifactoryManager manager;
+        private boolean pooled;
+        private int references;
+        private long lastUsed;
+
+        private PooledManager(ArtifactoryManager manager, boolean pooled) {
+            this.manager = manager;
+            this.pooled = pooled;
+        }
+    }
+
+    /**
+     * Logs to the log of the lease held by the current thread, or to the JVM log.
+     */
+    private static class LeaseLog implements Log {
+        @Override
+        public void debug(String message) {
+            Log callerLog = leaseLog.get();
+            if (callerLog == null) {
+                LOGGER.fine(message);
+            } else {
+                callerLog.debug(message);
+            }
+        }
+
+        @Override
+        public void info(String message) {
+            Log callerLog = leaseLog.get();
+            if (callerLog == null) {
+                LOGGER.info(message);
+            } else {
+                callerLog.info(message);
+            }
+        }
+
+        @Override
+        public void warn(String message) {
+            Log callerLog = leaseLog.get();
+            if (callerLog == null) {
+                LOGGER.warning(message);
+            } else {
+                callerLog.warn(message);
+            }
+        }
+
+        @Override
+        public void error(String message) {
+            Log callerLog = leaseLog.get();
+            if (callerLog == null) {
+                LOGGER.severe(message);
+            } else {
+                callerLog.error(message);
+            }
+        }
+
+        @Override
+        public void error(String message, Throwable e) {
+            Log callerLog = leaseLog.get();
+            if (callerLog == null) {
+                LOGGER.log(Level.SEVERE, message, e);
+            } else {
+                callerLog.error(message, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks shared by the threads and processes of an agent, based on lock files.
+ */
+public class FileLocks {
+    // File locks are held by the JVM, so threads of the same JVM must also be serialized
+    private static final Map<Path, ReentrantLock> jvmLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Lock a lock file, across the threads and processes of the agent. Waits until the lock is released.
+     *
+     * @param lockFile - The lock file. Created if missing.
+     * @return the lock, to be released by closing it.
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if interrupted while waiting for the lock.
+     */
+    public static Closeable lock(Path lockFile) throws IOException, InterruptedException {
+        ReentrantLock jvmLock = jvmLocks.computeIfAbsent(lockFile.toAbsolutePath(), key -> new ReentrantLock());
+        jvmLock.lockInterruptibly();
+        try {
+            FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                FileLock fileLock = channel.lock();
+                return () -> {
+                    try (channel) {
+                        fileLock.release();
+                    } finally {
+                        jvmLock.unlock();
+                    }
+                };
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            jvmLock.unlock();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Add servers to the JFrog CLI configuration file in the JFrog CLI home directory.
+ * Servers that already exist in the config are replaced, while their default server flag is kept.
+ * The file is written to a temporary file and then atomically moved into place, so JFrog CLI never reads a partial config.
+ * Steps running in parallel with the same home directory are serialized by a lock file, so no step loses the servers
+ * added by another.
+ * Runs inside an agent.
+ */
+@AllArgsConstructor
+public class JFrogCliConfigWriter extends MasterToSlaveFileCallable<Void> {
+    static final String CONFIG_FILE_PREFIX = "jfrog-cli.conf.v";
+    static final String LOCK_FILE_NAME = ".jenkins-config.lock";
+    private static final String SERVERS = "servers";
+    private static final String SERVER_ID = "serverId";
+    private static final String IS_DEFAULT = "isDefault";
+
+    private String configFileName;
+    private String content;
+
+    @Override
+    public Void invoke(File jfrogHomeDir, VirtualChannel channel) throws IOException, InterruptedException {
+        Path homeDir = Files.createDirectories(jfrogHomeDir.toPath());
+        // Read, merge and write under the lock, so that servers written by a parallel step are not lost
+        try (Closeable ignored = FileLocks.lock(homeDir.resolve(LOCK_FILE_NAME))) {
+            writeConfig(homeDir);
+        }
+        return null;
+    }
+
+    private void writeConfig(Path homeDir) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode config = (ObjectNode) mapper.readTree(content);
+        String targetFileName = configFileName;
+        // JFrog CLI may have already converted the config to a newer version. In that case, add the servers to that file.
+        Path existingConfigFile = findConfigFile(homeDir);
+        if (existingConfigFile != null) {
+            JsonNode existingConfig = mapper.readTree(existingConfigFile.toFile());
+            if (existingConfig instanceof ObjectNode) {
+                mergeServers((ObjectNode) existingConfig, config);
+                config = (ObjectNode) existingConfig;
+            }
+            targetFileName = existingConfigFile.getFileName().toString();
+        }
+
+        // Temp files are created with owner-only permissions, which are kept after the move
+        Path tempFile = Files.createTempFile(homeDir, targetFileName, ".tmp");
+        try {
+            Files.write(tempFile, mapper.writeValueAsBytes(config));
+            Files.move(tempFile, homeDir.resolve(targetFileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Add the new servers to the existing config.
+     *
+     * @param existingConfig - The config in the JFrog CLI home directory
+     * @param newConfig      - The config containing the servers to add
+     */
+    private static void mergeServers(ObjectNode existingConfig, ObjectNode newConfig) {
+        ArrayNode existingServers = getServers(existingConfig);
+        boolean hasDefault = false;
+        for (JsonNode existingServer : existingServers) {
+            hasDefault |= existingServer.path(IS_DEFAULT).asBoolean();
+        }
+        for (JsonNode newServer : getServers(newConfig)) {
+            ObjectNode server = (ObjectNode) newServer;
+            int index = indexOf(existingServers, server.path(SERVER_ID).asText());
+            if (index >= 0) {
+                server.put(IS_DEFAULT, existingServers.get(index).path(IS_DEFAULT).asBoolean());
+                existingServers.set(index, server);
+                continue;
+            }
+            if (hasDefault) {
+                server.put(IS_DEFAULT, false);
+            }
+            hasDefault |= server.path(IS_DEFAULT).asBoolean();
+            existingServers.add(server);
+        }
+    }
+
+    private static ArrayNode getServers(ObjectNode config) {
+        JsonNode servers = config.get(SERVERS);
+        return servers instanceof ArrayNode ? (ArrayNode) servers : config.putArray(SERVERS);
+    }
+
+    private static int indexOf(ArrayNode servers, String serverId) {
+        for (int i = 0; i < servers.size(); i++) {
+            if (StringUtils.equals(servers.get(i).path(SERVER_ID).asText(), serverId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the JFrog CLI config file with the highest version in the JFrog CLI home directory.
+     *
+     * @param homeDir - The JFrog CLI home directory
+     * @return the config file or null if the JFrog CLI is not configured yet.
+     * @throws IOException in case of any I/O error.
+     */
+    static Path findConfigFile(Path homeDir) throws IOException {
+        if (!Files.isDirectory(homeDir)) {
+            return null;
+        }
+        Path configFile = null;
+        int maxVersion = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(homeDir, CONFIG_FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                // Skip files that are not config files, such as temporary files of an ongoing write
+                int version = NumberUtils.toInt(StringUtils.removeStart(file.getFileName().toString(), CONFIG_FILE_PREFIX), -1);
+                if (version > maxVersion) {
+                    maxVersion = version;
+                    configFile = file;
+                }
+            }
+        }
+        return configFile;
+    }
+
+    /**
+     * Read the IDs of the servers configured in the JFrog CLI home directory.
+     *
+     * @param homeDir - The JFrog CLI home directory
+     * @return the configured server IDs. Empty if the JFrog CLI is not configured yet.
+     * @throws IOException in case of any I/O error.
+     */
+    static Set<String> readServerIds(Path homeDir) throws IOException {
+        Set<String> serverIds = new HashSet<>();
+        Path configFile = findConfigFile(homeDir);
+        if (configFile == null) {
+            return serverIds;
+        }
+        for (JsonNode server : new ObjectMapper().readTree(configFile.toFile()).path(SERVERS)) {
+            serverIds.add(server.path(SERVER_ID).asText());
+        }
+        return serverIds;
+    }
+}
@@ -0,0 +1,67 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.remoting.VirtualChannel;
+import hudson.util.VersionNumber;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps the JFrog CLI dependencies directory, shared by the JFrog CLI installations of an agent, under a size cap.
+ * JFrog CLI downloads the build-info extractors to this directory, in a directory per extractor and version,
+ * such as 'maven/2.41.0'. When the directory exceeds the cap, the least recently used versions are deleted.
+ * The versions are marked as used by {@link #markUsed(Path, String)} after the commands that use them.
+ * Returns a report of the directory contents, or null if the directory doesn't exist or was checked recently.
+ * Runs inside an agent.
+ */
+public class JFrogCliDependenciesDir extends MasterToSlaveFileCallable<String> {
+    private final long maxSizeMb;
+
+    /**
+     * @param maxSizeMb - The size cap of the directory in megabytes. 0 disables the cap.
+     */
+    public JFrogCliDependenciesDir(long maxSizeMb) {
+        this.maxSizeMb = maxSizeMb;
+    }
+
+    /**
+     * Mark the extractor used by a finished 'jf' command as used.
+     * JFrog CLI doesn't report the extractor version it used. Each JFrog CLI version uses a fixed extractor version,
+     * and newer JFrog CLI versions use newer extractors, so the latest version in the directory is marked. Older
+     * versions, used by older JFrog CLI installations, are downloaded again if they were deleted.
+     *
+     * @param dependenciesDir - The dependencies directory
+     * @param extractor       - The extractor directory name, such as 'maven'
+     * @throws IOException in case of any I/O error.
+     */
+    public static void markUsed(Path dependenciesDir, String extractor) throws IOException {
+        Path extractorDir = dependenciesDir.resolve(extractor);
+        if (!Files.isDirectory(extractorDir)) {
+            return;
+        }
+        Path latest = null;
+        try (DirectoryStream<Path> versionDirs = Files.newDirectoryStream(extractorDir, Files::isDirectory)) {
+            for (Path versionDir : versionDirs) {
+                if (latest == null || getVersion(versionDir).isNewerThan(getVersion(latest))) {
+                    latest = versionDir;
+                }
+            }
+        }
+        if (latest != null) {
+            LruDirectoryCap.markUsed(latest);
+        }
+    }
+
+    private static VersionNumber getVersion(Path versionDir) {
+        return new VersionNumber(versionDir.getFileName().toString());
+    }
+
+    @Override
+    public String invoke(File dependenciesDir, VirtualChannel channel) throws IOException, InterruptedException {
+        return new LruDirectoryCap("JFrog CLI dependencies directory", maxSizeMb).apply(dependenciesDir.toPath());
+    }
+}
@@ -11,8 +11,11 @@ import jenkins.MasterToSlaveFileCallable;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.client.ProxyConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -45,40 +48,144 @@ public class JFrogCliDownloader extends MasterToSlaveFileCallable<Void> {
     private TaskListener log;
     String repository;
     String binaryName;
+    // The sha256 resolved by the controller. If null, it is resolved by the agent.
+    private String resolvedSha256;
 
     @Override
     public Void invoke(File toolLocation, VirtualChannel channel) throws IOException, InterruptedException {
-        // An empty string indicates the latest version.
-        String version = StringUtils.defaultIfBlank(providedVersion, RELEASE);
-        String cliUrlSuffix = String.format("/%s/v2-jf/%s/jfrog-cli-%s/%s", repository, version, OsUtils.getOsDetails(), binaryName);
-
-        JenkinsBuildInfoLog buildInfoLog = new JenkinsBuildInfoLog(log);
+        String cliUrlSuffix = getCliUrlSuffix(repository, providedVersion, OsUtils.getOsDetails(), binaryName);
 
         // Downloading binary from Artifactory
         String artifactoryUrl = instance.inferArtifactoryUrl();
-        try (ArtifactoryManager manager = new ArtifactoryManager(artifactoryUrl, Secret.toString(instance.getCredentialsConfig().getUsername()),
-                Secret.toString(instance.getCredentialsConfig().getPassword()), Secret.toString(instance.getCredentialsConfig().getAccessToken()), buildInfoLog)) {
-            if (proxyConfiguration.isProxyConfigured(artifactoryUrl)) {
-                manager.setProxyConfiguration(proxyConfiguration);
-            }
+        try (ArtifactoryManagerPool.Lease lease = ArtifactoryManagerPool.acquire(instance, proxyConfiguration, new JenkinsBuildInfoLog(log))) {
+            ArtifactoryManager manager = lease.getManager();
             // Getting updated cli binary's sha256 form Artifactory.
-            String artifactorySha256 = getArtifactSha256(manager, cliUrlSuffix);
-            if (shouldDownloadTool(toolLocation, artifactorySha256)) {
-                if (version.equals(RELEASE)) {
-                    log.getLogger().printf("Download '%s' latest version from: %s%n", binaryName, artifactoryUrl + cliUrlSuffix);
-                } else {
-                    log.getLogger().printf("Download '%s' version %s from: %s%n", binaryName, version, artifactoryUrl + cliUrlSuffix);
+            String artifactorySha256 = resolvedSha256 != null ? resolvedSha256 : getArtifactSha256(manager, cliUrlSuffix);
+            if (!shouldDownloadTool(toolLocation, artifactorySha256)) {
+                return null;
+            }
+            // Binaries are shared by all installations in the agent, through the agent's store
+            JFrogCliStore store = JFrogCliStore.forTool(toolLocation, binaryName);
+            // Only one installation downloads the binary. The others wait for it, and then use the stored binary.
+            try (Closeable ignored = store.lock()) {
+                if (!shouldDownloadTool(toolLocation, artifactorySha256)) {
+                    return null;
                 }
-                File downloadResponse = manager.downloadToFile(cliUrlSuffix, new File(toolLocation, binaryName).getPath());
-                if (!downloadResponse.setExecutable(true)) {
-                    throw new IOException("No permission to add execution permission to binary");
+                Path binary = store.get(artifactorySha256);
+                if (binary == null) {
+                    logDownload(log, binaryName, providedVersion, artifactoryUrl + cliUrlSuffix);
+                    binary = download(manager, store, cliUrlSuffix, artifactorySha256);
+                } else {
+                    log.getLogger().printf("Using '%s' from the agent's JFrog CLI store: %s%n", binaryName, binary);
                 }
-                createSha256File(toolLocation, artifactorySha256);
+                installFromStore(store, binary, toolLocation);
             }
         }
         return null;
     }
 
+    /**
+     * Download the binary into the store. Large binaries are downloaded in parallel ranges, and resume after an
+     * interruption. The binary is downloaded in a single stream if its sha256 is unknown, the proxy requires
+     * authentication, or the server doesn't support range requests.
+     *
+     * @param manager           - The Artifactory manager
+     * @param store             - The agent's JFrog CLI store
+     * @param cliUrlSuffix      - The path of the binary in Artifactory
+     * @param artifactorySha256 - The expected binary sha256, or empty if unknown
+     * @return the stored binary.
+     */
+    private Path download(ArtifactoryManager manager, JFrogCliStore store, String cliUrlSuffix, String artifactorySha256) throws IOException, InterruptedException {
+        String artifactoryUrl = instance.inferArtifactoryUrl();
+        ProxyConfiguration proxy = proxyConfiguration.isProxyConfigured(artifactoryUrl) ? proxyConfiguration : null;
+        // The JDK HTTP client disables Basic authentication when tunneling HTTPS through a proxy
+        if (StringUtils.isNotBlank(artifactorySha256) && (proxy == null || StringUtils.isBlank(proxy.username))) {
+            long size = RangedDownloader.getRangedSize(manager.downloadHeaders(cliUrlSuffix));
+            if (size > 0) {
+                RangedDownloader rangedDownloader = new RangedDownloader(artifactoryUrl + cliUrlSuffix,
+                        Secret.toString(instance.getCredentialsConfig().getUsername()), Secret.toString(instance.getCredentialsConfig().getPassword()),
+                        Secret.toString(instance.getCredentialsConfig().getAccessToken()), proxy, store.getPartFile(artifactorySha256), size);
+                // If the download fails, the downloaded chunks are kept for the next attempt
+                boolean ranged = rangedDownloader.download();
+                try {
+                    if (ranged) {
+                        return store.add(store.getPartFile(artifactorySha256), artifactorySha256);
+                    }
+                } finally {
+                    // The binary was moved to the store, was found corrupted, or the server ignored the range requests
+                    rangedDownloader.delete();
+                }
+            }
+        }
+        Path tempFile = store.createTempFile();
+        try {
+            manager.downloadToFile(cliUrlSuffix, tempFile.toString());
+            return store.add(tempFile, artifactorySha256);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @param repository      - The repository containing JFrog CLI
+     * @param providedVersion - The JFrog CLI version. An empty string indicates the latest version.
+     * @param osDetails       - The OS/arch of the agent
+     * @param binaryName      - The JFrog CLI binary name
+     * @return the path of the JFrog CLI binary in Artifactory.
+     */
+    public static String getCliUrlSuffix(String repository, String providedVersion, String osDetails, String binaryName) {
+        String version = StringUtils.defaultIfBlank(providedVersion, RELEASE);
+        return String.format("/%s/v2-jf/%s/jfrog-cli-%s/%s", repository, version, osDetails, binaryName);
+    }
+
+    /**
+     * Create an Artifactory manager to download JFrog CLI from the instance.
+     *
+     * @param instance           - The JFrog Platform instance
+     * @param proxyConfiguration - The Jenkins proxy configuration
+     * @param log                - The logger
+     * @return the Artifactory manager.
+     */
+    public static ArtifactoryManager createManager(JFrogPlatformInstance instance, JenkinsProxyConfiguration proxyConfiguration, Log log) {
+        String artifactoryUrl = instance.inferArtifactoryUrl();
+        ArtifactoryManager manager = new ArtifactoryManager(artifactoryUrl, Secret.toString(instance.getCredentialsConfig().getUsername()),
+                Secret.toString(instance.getCredentialsConfig().getPassword()), Secret.toString(instance.getCredentialsConfig().getAccessToken()), log);
+        if (proxyConfiguration.isProxyConfigured(artifactoryUrl)) {
+            manager.setProxyConfiguration(proxyConfiguration);
+        }
+        return manager;
+    }
+
+    /**
+     * Log the download of JFrog CLI.
+     *
+     * @param log             - The logger
+     * @param binaryName      - The JFrog CLI binary name
+     * @param providedVersion - The JFrog CLI version. An empty string indicates the latest version.
+     * @param url             - The download URL
+     */
+    public static void logDownload(TaskListener log, String binaryName, String providedVersion, String url) {
+        if (StringUtils.isBlank(providedVersion)) {
+            log.getLogger().printf("Download '%s' latest version from: %s%n", binaryName, url);
+        } else {
+            log.getLogger().printf("Download '%s' version %s from: %s%n", binaryName, providedVersion, url);
+        }
+    }
+
+    /**
+     * Place a stored binary in the tool directory, and delete the stored binaries that are no longer used.
+     *
+     * @param store        - The agent's JFrog CLI store
+     * @param binary       - The stored binary
+     * @param toolLocation - The tool directory
+     * @throws IOException in case of any I/O error.
+     */
+    static void installFromStore(JFrogCliStore store, Path binary, File toolLocation) throws IOException {
+        store.link(binary, toolLocation);
+        createSha256File(toolLocation, binary.getParent().getFileName().toString());
+        store.collectGarbage();
+    }
+
     private static void createSha256File(File toolLocation, String artifactorySha256) throws IOException {
         File file = new File(toolLocation, SHA256_FILE_NAME);
         Files.write(file.toPath(), artifactorySha256.getBytes(StandardCharsets.UTF_8));
@@ -92,7 +199,7 @@ public class JFrogCliDownloader extends MasterToSlaveFileCallable<Void> {
      * @param toolLocation      - expected location of the tool on the fileSystem.
      * @param artifactorySha256 - sha256 of the expected file in artifactory.
      */
-    private static boolean shouldDownloadTool(File toolLocation, String artifactorySha256) throws IOException {
+    static boolean shouldDownloadTool(File toolLocation, String artifactorySha256) throws IOException {
         // In case no sha256 was provided (for example when the customer blocks headers) download the tool.
         if (artifactorySha256.isEmpty()) {
             return true;
@@ -114,7 +221,7 @@ public class JFrogCliDownloader extends MasterToSlaveFileCallable<Void> {
      * @return binary's sha256
      * @throws IOException in case of any I/O error.
      */
-    private static String getArtifactSha256(ArtifactoryManager manager, String cliUrlSuffix) throws IOException {
+    public static String getArtifactSha256(ArtifactoryManager manager, String cliUrlSuffix) throws IOException {
         Header[] headers = manager.downloadHeaders(cliUrlSuffix);
         for (Header header : headers) {
             if (header.getName().equalsIgnoreCase(SHA256_HEADER_NAME)) {
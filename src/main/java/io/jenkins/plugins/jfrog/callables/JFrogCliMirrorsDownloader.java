@@ -0,0 +1,242 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.jfrog.JenkinsBuildInfoLog;
+import io.jenkins.plugins.jfrog.OsUtils;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import jenkins.MasterToSlaveFileCallable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads JFrog CLI from the fastest of several Artifactory mirrors.
+ * The mirrors are ranked by the latencies measured in previous installations in this agent. The sha256 of the binary
+ * is requested from the first mirror, and if it doesn't respond within the hedge delay, also from the next one.
+ * The first mirror to respond is used for the download, and the next mirrors are used if the download fails.
+ * Runs inside an agent.
+ */
+@AllArgsConstructor
+public class JFrogCliMirrorsDownloader extends MasterToSlaveFileCallable<Void> {
+    // The time to trust a measured latency before probing the mirror again
+    static final long LATENCY_TTL_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong(JFrogCliMirrorsDownloader.class.getName() + ".latencyTtlMinutes", 30));
+    // The time to wait for a mirror with an unknown latency before sending a request to the next one
+    static final long HEDGE_DELAY_MILLIS = Long.getLong(JFrogCliMirrorsDownloader.class.getName() + ".hedgeDelayMillis", 500);
+    // The latencies measured in this agent, by the mirror URL
+    private static final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+    private static final ExecutorService executorService = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), "JFrogCliMirrorsDownloader"));
+
+    private JenkinsProxyConfiguration proxyConfiguration;
+    private String providedVersion;
+    private List<Mirror> mirrors;
+    private TaskListener log;
+    private String binaryName;
+
+    @Override
+    public Void invoke(File toolLocation, VirtualChannel channel) throws IOException, InterruptedException {
+        String osDetails = OsUtils.getOsDetails();
+        List<Mirror> ranked = rank(mirrors);
+        Probe probe = probe(ranked, osDetails);
+        log.getLogger().printf("Selected the JFrog CLI mirror %s (%dms)%n", probe.mirror.getUrl(), probe.latencyMillis);
+
+        // Try the fastest mirror first, and fail over to the others by their rank
+        List<Mirror> candidates = new ArrayList<>(ranked);
+        candidates.remove(probe.mirror);
+        candidates.add(0, probe.mirror);
+        IOException failure = null;
+        for (Mirror mirror : candidates) {
+            // The sha256 was resolved by the probe. Other mirrors may serve a different latest version.
+            String sha256 = mirror == probe.mirror ? probe.sha256 : null;
+            try {
+                new JFrogCliDownloader(proxyConfiguration, providedVersion, mirror.instance, log, mirror.repository, binaryName, sha256).invoke(toolLocation, channel);
+                return null;
+            } catch (IOException e) {
+                recordFailure(mirror);
+                log.getLogger().printf("Couldn't download '%s' from %s: %s%n", binaryName, mirror.getUrl(), e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Request the binary sha256 from the mirrors by their rank. A request is sent to the next mirror when the previous
+     * mirror fails, or doesn't respond within its hedge delay.
+     *
+     * @param ranked    - The ranked mirrors
+     * @param osDetails - The agent's OS and architecture
+     * @return the first successful probe.
+     * @throws IOException if all mirrors failed.
+     */
+    private Probe probe(List<Mirror> ranked, String osDetails) throws IOException, InterruptedException {
+        CompletionService<Probe> completionService = new ExecutorCompletionService<>(executorService);
+        List<Future<Probe>> futures = new ArrayList<>();
+        long[] startTimes = new long[ranked.size()];
+        IOException failure = null;
+        int next = 0;
+        int pending = 0;
+        try {
+            while (next < ranked.size() || pending > 0) {
+                if (pending == 0) {
+                    startTimes[next] = System.nanoTime();
+                    futures.add(completionService.submit(createProbe(ranked.get(next++), osDetails)));
+                    pending++;
+                    continue;
+                }
+                Future<Probe> completed = next < ranked.size() ?
+                        completionService.poll(getHedgeDelay(ranked.get(next - 1)), TimeUnit.MILLISECONDS) :
+                        completionService.take();
+                if (completed == null) {
+                    // The last mirror is slow. Hedge with the next one.
+                    startTimes[next] = System.nanoTime();
+                    futures.add(completionService.submit(createProbe(ranked.get(next++), osDetails)));
+                    pending++;
+                    continue;
+                }
+                pending--;
+                try {
+                    Probe probe = completed.get();
+                    recordLatency(probe.mirror, probe.latencyMillis);
+                    // The mirrors that are still pending are at least as slow as the time they waited
+                    for (int i = 0; i < futures.size(); i++) {
+                        if (!futures.get(i).isDone()) {
+                            recordLatency(ranked.get(i), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimes[i]));
+                        }
+                    }
+                    return probe;
+                } catch (ExecutionException e) {
+                    int index = futures.indexOf(completed);
+                    recordFailure(ranked.get(index));
+                    log.getLogger().printf("The JFrog CLI mirror %s is unavailable: %s%n", ranked.get(index).getUrl(), e.getCause().getMessage());
+                    IOException cause = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+        } finally {
+            for (Future<Probe> future : futures) {
+                future.cancel(true);
+            }
+        }
+        throw failure;
+    }
+
+    private Callable<Probe> createProbe(Mirror mirror, String osDetails) {
+        return () -> {
+            long start = System.nanoTime();
+            String cliUrlSuffix = JFrogCliDownloader.getCliUrlSuffix(mirror.repository, providedVersion, osDetails, binaryName);
+            try (ArtifactoryManagerPool.Lease lease = ArtifactoryManagerPool.acquire(mirror.instance, proxyConfiguration, new JenkinsBuildInfoLog(log))) {
+                String sha256 = JFrogCliDownloader.getArtifactSha256(lease.getManager(), cliUrlSuffix);
+                return new Probe(mirror, sha256, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        };
+    }
+
+    /**
+     * Rank the mirrors by their latencies measured in this agent. Mirrors without a recent measurement come after the
+     * measured ones, by their configured order, and are measured when the faster mirrors are slow to respond.
+     * Mirrors that recently failed come last.
+     *
+     * @param mirrors - The configured mirrors
+     * @return the ranked mirrors.
+     */
+    static List<Mirror> rank(List<Mirror> mirrors) {
+        List<Mirror> ranked = new ArrayList<>(mirrors);
+        // The sort is stable, so mirrors with the same latency keep their configured order
+        ranked.sort(Comparator.comparingLong(JFrogCliMirrorsDownloader::getRankingLatency));
+        return ranked;
+    }
+
+    private static long getRankingLatency(Mirror mirror) {
+        long latency = getKnownLatency(mirror);
+        // Failed mirrors are recorded with the maximal latency
+        return latency > 0 ? latency : Long.MAX_VALUE - 1;
+    }
+
+    private static long getKnownLatency(Mirror mirror) {
+        Latency latency = latencies.get(mirror.getUrl());
+        if (latency == null || System.currentTimeMillis() - latency.measuredAt > LATENCY_TTL_MILLIS) {
+            return 0;
+        }
+        return latency.millis;
+    }
+
+    /**
+     * @param mirror - A mirror with a pending request
+     * @return the time to wait for the mirror before sending a request to the next one.
+     */
+    private static long getHedgeDelay(Mirror mirror) {
+        long latency = getKnownLatency(mirror);
+        return latency > 0 ? Math.min(HEDGE_DELAY_MILLIS, Math.max(50, 2 * latency)) : HEDGE_DELAY_MILLIS;
+    }
+
+    static void recordLatency(Mirror mirror, long millis) {
+        // Keep measured latencies positive, as 0 stands for an unknown latency
+        latencies.put(mirror.getUrl(), new Latency(Math.max(1, millis), System.currentTimeMillis()));
+    }
+
+    static void recordFailure(Mirror mirror) {
+        latencies.put(mirror.getUrl(), new Latency(Long.MAX_VALUE, System.currentTimeMillis()));
+    }
+
+    static void clearLatencies() {
+        latencies.clear();
+    }
+
+    /**
+     * A JFrog Platform instance and a repository containing JFrog CLI.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Mirror implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private JFrogPlatformInstance instance;
+        private String repository;
+
+        String getUrl() {
+            return instance.inferArtifactoryUrl() + "/" + repository;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Probe {
+        private final Mirror mirror;
+        private final String sha256;
+        private final long latencyMillis;
+    }
+
+    @AllArgsConstructor
+    private static class Latency {
+        private final long millis;
+        private final long measuredAt;
+    }
+}
@@ -0,0 +1,247 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.Util;
+import io.jenkins.plugins.jfrog.OsUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An agent-wide store of JFrog CLI binaries, keyed by the OS/arch and the binary sha256.
+ * The store is shared by all JFrog CLI tool installations in the agent. Tool directories hard-link their binary
+ * to the store, so each version is downloaded and stored once. Binaries that are no longer linked by any tool
+ * directory are garbage-collected.
+ * Changes to the store are protected by {@link #lock()}, so concurrent installations in the agent download a binary once.
+ * Runs inside an agent.
+ */
+public class JFrogCliStore {
+    static final String STORE_DIR_NAME = ".jfrog-cli-store";
+    // Binaries added recently may be about to be linked by another installation
+    private static final long GC_GRACE_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // If the file system doesn't report the number of links, binaries that weren't linked for this long are deleted
+    static final long UNUSED_BINARY_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private final Path osDir;
+    private final String binaryName;
+
+    /**
+     * @param osDir      - The store directory of the binaries of a specific OS/arch
+     * @param binaryName - The JFrog CLI binary name
+     */
+    public JFrogCliStore(Path osDir, String binaryName) {
+        this.osDir = osDir;
+        this.binaryName = binaryName;
+    }
+
+    /**
+     * @param toolLocation - The tool directory. The store is created next to the tool directories of all JFrog CLI installations.
+     * @param binaryName   - The JFrog CLI binary name
+     * @return the store of the agent running this code.
+     * @throws IOException if the agent's OS is not supported.
+     */
+    public static JFrogCliStore forTool(File toolLocation, String binaryName) throws IOException {
+        Path toolsDir = toolLocation.toPath().toAbsolutePath().getParent();
+        return new JFrogCliStore(toolsDir.resolve(STORE_DIR_NAME).resolve(OsUtils.getOsDetails()), binaryName);
+    }
+
+    /**
+     * Lock the store of the binary, across the threads and processes of the agent.
+     * Waits until the lock is released by any other installation.
+     *
+     * @return the lock, to be released by closing it.
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if interrupted while waiting for the lock.
+     */
+    public Closeable lock() throws IOException, InterruptedException {
+        Files.createDirectories(osDir);
+        return FileLocks.lock(osDir.resolve(binaryName + ".lock"));
+    }
+
+    /**
+     * @param sha256 - The binary sha256
+     * @return the stored binary, or null if it isn't in the store.
+     */
+    public Path get(String sha256) {
+        if (StringUtils.isBlank(sha256)) {
+            return null;
+        }
+        Path binary = osDir.resolve(sha256).resolve(binaryName);
+        return Files.isRegularFile(binary) ? binary : null;
+    }
+
+    /**
+     * @return a new temporary file in the store, to download a binary to.
+     * @throws IOException in case of any I/O error.
+     */
+    public Path createTempFile() throws IOException {
+        Files.createDirectories(osDir);
+        return Files.createTempFile(osDir, binaryName, ".tmp");
+    }
+
+    /**
+     * @param sha256 - The expected binary sha256
+     * @return a file in the store to download the binary to, which is kept between download attempts to allow resuming.
+     * @throws IOException in case of any I/O error.
+     */
+    public Path getPartFile(String sha256) throws IOException {
+        Files.createDirectories(osDir);
+        return osDir.resolve(binaryName + "-" + sha256 + ".tmp");
+    }
+
+    /**
+     * Move a downloaded binary into the store.
+     *
+     * @param file           - The downloaded binary
+     * @param expectedSha256 - The expected sha256 of the binary. If blank, the binary is not verified.
+     * @return the stored binary.
+     * @throws Sha256MismatchException if the binary's sha256 doesn't match the expected sha256.
+     * @throws IOException              in case of any I/O error.
+     */
+    public Path add(Path file, String expectedSha256) throws IOException {
+        String sha256 = sha256(file);
+        if (StringUtils.isNotBlank(expectedSha256) && !StringUtils.equalsIgnoreCase(sha256, expectedSha256)) {
+            throw new Sha256MismatchException(String.format("The downloaded '%s' sha256 %s doesn't match the expected sha256 %s", binaryName, sha256, expectedSha256));
+        }
+        Path binary = osDir.resolve(sha256).resolve(binaryName);
+        if (Files.isRegularFile(binary)) {
+            Files.delete(file);
+            return binary;
+        }
+        Files.createDirectories(binary.getParent());
+        if (!file.toFile().setExecutable(true)) {
+            throw new IOException("No permission to add execution permission to binary");
+        }
+        Files.move(file, binary, StandardCopyOption.ATOMIC_MOVE);
+        return binary;
+    }
+
+    /**
+     * Place a stored binary in a tool directory. The binary is hard-linked, or copied if the file system doesn't
+     * support hard links. The binary is replaced atomically, so running processes keep using the previous binary.
+     *
+     * @param binary       - The stored binary
+     * @param toolLocation - The tool directory
+     * @throws IOException in case of any I/O error.
+     */
+    public void link(Path binary, File toolLocation) throws IOException {
+        Path toolDir = toolLocation.toPath();
+        Path tempFile = Files.createTempFile(toolDir, binaryName, ".tmp");
+        try {
+            Files.delete(tempFile);
+            try {
+                Files.createLink(tempFile, binary);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(binary, tempFile);
+                if (!tempFile.toFile().setExecutable(true)) {
+                    throw new IOException("No permission to add execution permission to binary");
+                }
+            }
+            Files.move(tempFile, toolDir.resolve(binaryName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        // Mark the binary as used, for file systems that don't report the number of links
+        try {
+            Files.setLastModifiedTime(binary, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // The binary may be in use, it is marked by the next installation
+        }
+    }
+
+    /**
+     * Delete the stored binaries that are not linked by any tool directory, and old temporary files.
+     * If the file system doesn't report the number of links, as on Windows, the binaries that haven't been linked to a
+     * tool directory for {@link #UNUSED_BINARY_MAX_AGE_MILLIS} are deleted instead. Tool directories keep their own
+     * link or copy of the binary, so deleting it from the store only means it is downloaded again when needed.
+     */
+    public void collectGarbage() throws IOException {
+        if (!Files.isDirectory(osDir)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // Delete the temporary files left by interrupted installations
+        try (DirectoryStream<Path> tempFiles = Files.newDirectoryStream(osDir, binaryName + "*.tmp*")) {
+            for (Path tempFile : tempFiles) {
+                if (now - Files.getLastModifiedTime(tempFile).toMillis() >= GC_GRACE_PERIOD_MILLIS) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        }
+        try (DirectoryStream<Path> shaDirs = Files.newDirectoryStream(osDir, Files::isDirectory)) {
+            for (Path shaDir : shaDirs) {
+                Path binary = shaDir.resolve(binaryName);
+                if (!Files.isRegularFile(binary) || now - Files.getLastModifiedTime(binary).toMillis() < GC_GRACE_PERIOD_MILLIS) {
+                    continue;
+                }
+                Integer links = getLinkCount(binary);
+                boolean unused = links != null ? links <= 1 :
+                        now - Files.getLastModifiedTime(binary).toMillis() >= UNUSED_BINARY_MAX_AGE_MILLIS;
+                if (!unused) {
+                    continue;
+                }
+                try {
+                    Files.delete(binary);
+                    Files.deleteIfExists(shaDir);
+                } catch (IOException e) {
+                    // On Windows, a binary that is running can't be deleted
+                }
+            }
+        }
+    }
+
+    /**
+     * @param binary - The stored binary
+     * @return the number of hard links to the binary, or null if the file system doesn't report it.
+     * @throws IOException in case of any I/O error.
+     */
+    Integer getLinkCount(Path binary) throws IOException {
+        try {
+            return (Integer) Files.getAttribute(binary, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Thrown if a binary doesn't match its expected sha256, for example if the expected sha256 is outdated.
+     */
+    public static class Sha256MismatchException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public Sha256MismatchException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * @param file - The file to calculate its sha256
+     * @return the sha256 of the file, as a lowercase hex string.
+     * @throws IOException in case of any I/O error.
+     */
+    public static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            return Util.toHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import lombok.AllArgsConstructor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Install a JFrog CLI binary sent by the controller, through the agent's JFrog CLI store.
+ * Without a transferred file, install the binary if it already exists in the store. Otherwise, return a temporary file
+ * in the store for the controller to transfer the binary to.
+ * With a transferred file, verify its sha256 and install it.
+ * Runs inside an agent.
+ */
+@AllArgsConstructor
+public class JFrogCliStoreInstaller extends MasterToSlaveFileCallable<String> {
+    private String binaryName;
+    private String sha256;
+    private String transferredFile;
+
+    /**
+     * @return null if the binary was installed, or the path of a temporary file to transfer the binary to.
+     */
+    @Override
+    public String invoke(File toolLocation, VirtualChannel channel) throws IOException, InterruptedException {
+        JFrogCliStore store = JFrogCliStore.forTool(toolLocation, binaryName);
+        try (Closeable ignored = store.lock()) {
+            Path binary;
+            if (transferredFile == null) {
+                if (!JFrogCliDownloader.shouldDownloadTool(toolLocation, sha256)) {
+                    return null;
+                }
+                binary = store.get(sha256);
+                if (binary == null) {
+                    return store.createTempFile().toString();
+                }
+            } else {
+                Path tempFile = Paths.get(transferredFile);
+                try {
+                    binary = store.add(tempFile, sha256);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+            JFrogCliDownloader.installFromStore(store, binary, toolLocation);
+            return null;
+        }
+    }
+}
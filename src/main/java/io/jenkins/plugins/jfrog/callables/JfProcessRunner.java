@@ -0,0 +1,106 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Proc;
+import hudson.remoting.Channel;
+import hudson.util.StreamTaskListener;
+import jenkins.security.MasterToSlaveCallable;
+import lombok.AllArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static io.jenkins.plugins.jfrog.JfrogInstallation.JFROG_CLI_DEPENDENCIES_DIR;
+
+/**
+ * Run a 'jf' command and wait for it to exit on the agent.
+ * The controller calls it asynchronously, so that no controller thread waits for the command. The agent pushes the
+ * exit code back to the controller through the exit listener, as soon as the command exits. Cancelling the call
+ * interrupts the agent thread, which kills the process.
+ * Runs inside an agent.
+ */
+@AllArgsConstructor
+public class JfProcessRunner extends MasterToSlaveCallable<Integer, IOException> {
+    private static final long serialVersionUID = 1L;
+    private final List<String> cmds;
+    private final String[] envs;
+    private final String pwd;
+    // The output of the command, a remote stream of the step's output in the controller
+    private final OutputStream stdout;
+    // The build log, where the command line is printed
+    private final OutputStream log;
+    // Notified in the controller when the command exits or fails to run
+    private final ExitListener exitListener;
+    // The build-info extractor used by the command, such as 'maven', or null if it doesn't use one
+    private final String extractor;
+
+    /**
+     * Receives the result of the 'jf' command in the controller.
+     * When the command runs on an agent, the controller exports the listener to the agent's channel.
+     */
+    public interface ExitListener {
+        void onExit(int exitCode);
+
+        void onFailure(Throwable cause);
+    }
+
+    @Override
+    public Integer call() throws IOException {
+        int exitCode;
+        try {
+            exitCode = run();
+        } catch (IOException | RuntimeException e) {
+            exitListener.onFailure(e);
+            throw e;
+        }
+        markExtractorUsed();
+        exitListener.onExit(exitCode);
+        return exitCode;
+    }
+
+    /**
+     * Mark the extractor used by the command in the JFrog CLI dependencies directory, to keep it under the size cap.
+     */
+    private void markExtractorUsed() {
+        if (extractor == null) {
+            return;
+        }
+        String prefix = JFROG_CLI_DEPENDENCIES_DIR + "=";
+        for (String env : envs) {
+            if (env.startsWith(prefix)) {
+                try {
+                    JFrogCliDependenciesDir.markUsed(Paths.get(env.substring(prefix.length())), extractor);
+                } catch (IOException | RuntimeException ignored) {
+                    // The extractor is kept while the cap isn't exceeded, or downloaded again
+                }
+                return;
+            }
+        }
+    }
+
+    private int run() throws IOException {
+        Launcher launcher = new Launcher.LocalLauncher(new StreamTaskListener(log, Charset.defaultCharset()));
+        Proc proc = launcher.launch().cmds(cmds).envs(envs).pwd(new FilePath(new File(pwd))).stdout(stdout).start();
+        try {
+            // If the call is cancelled, join() terminates the process before throwing the InterruptedException
+            int exitCode = proc.join();
+            // Make sure the output is delivered to the controller before the exit code
+            Channel channel = Channel.current();
+            if (channel != null) {
+                channel.syncIO();
+            }
+            return exitCode;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interruptedIOException = new InterruptedIOException("The 'jf' command was stopped");
+            interruptedIOException.initCause(e);
+            throw interruptedIOException;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Set;
+
+/**
+ * Prepare the agent for running a 'jf' command in a single remote call:
+ * create the workspace and the JFrog CLI home directory, and read the servers already configured in it.
+ * Runs inside an agent.
+ */
+@AllArgsConstructor
+public class JfStepSetup extends MasterToSlaveFileCallable<JfStepSetup.AgentSetup> {
+    private String workspaceList;
+    private String buildNumber;
+
+    @Override
+    public AgentSetup invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+        Files.createDirectories(workspace.toPath());
+        FilePath ws = new FilePath(workspace);
+        new TempDirCreator(workspaceList, ws).invoke(workspace, channel);
+        String jfrogHomeDir = getJfrogHomeDir(workspaceList, ws, buildNumber).getRemote();
+        return new AgentSetup(jfrogHomeDir, JFrogCliConfigWriter.readServerIds(Paths.get(jfrogHomeDir)));
+    }
+
+    /**
+     * Get the path of the JFrog CLI home directory of a build, without accessing the agent.
+     * The home directory is intentionally not shared or cached across builds: its config is encrypted with a random
+     * key generated for each build, and it may contain credentials that only the build's job is allowed to access.
+     * Configuring a new home is cheap, since the config is written to the agent in a single call.
+     *
+     * @param workspaceList - The token that combines the project name and unique number of the workspace
+     * @param ws            - The workspace
+     * @param buildNumber   - The build number
+     * @return the JFrog CLI home directory path.
+     */
+    public static FilePath getJfrogHomeDir(String workspaceList, FilePath ws, String buildNumber) {
+        return TempDirCreator.getTempDir(workspaceList, ws).child(buildNumber).child(".jfrog");
+    }
+
+    /**
+     * The agent state required to run a 'jf' command.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class AgentSetup implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String jfrogHomeDir;
+        private final Set<String> configuredServerIds;
+    }
+}
@@ -0,0 +1,180 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.Util;
+import org.apache.commons.io.FileUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a directory of entries in a two-level layout under a size cap, by deleting the least recently used entries.
+ * Used for the JFrog CLI dependencies directory of an agent, with an entry per extractor and version, such as
+ * 'maven/2.41.0', and for the controller cache of JFrog CLI binaries, with an entry per 'os-arch/sha256'.
+ * Entries used or added recently are kept, since a running process may be using them. Access times are not updated
+ * on file systems mounted with 'noatime', so uses are tracked explicitly by {@link #markUsed(Path)}.
+ * The directory is checked at most once per check interval, across the threads and processes that share it.
+ */
+public class LruDirectoryCap {
+    static final String LOCK_FILE_NAME = ".lock";
+    static final String LAST_CHECK_FILE_NAME = ".last-check";
+    static final String LAST_USED_FILE_NAME = ".last-used";
+    private static final long CHECK_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long IN_USE_GRACE_PERIOD_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final String name;
+    private final long maxSizeBytes;
+    private final long checkIntervalMillis;
+    private final long inUseGracePeriodMillis;
+
+    /**
+     * @param name      - The name of the directory in the report
+     * @param maxSizeMb - The size cap of the directory in megabytes. 0 disables the cap.
+     */
+    public LruDirectoryCap(String name, long maxSizeMb) {
+        this(name, maxSizeMb * FileUtils.ONE_MB, CHECK_INTERVAL_MILLIS, IN_USE_GRACE_PERIOD_MILLIS);
+    }
+
+    LruDirectoryCap(String name, long maxSizeBytes, long checkIntervalMillis, long inUseGracePeriodMillis) {
+        this.name = name;
+        this.maxSizeBytes = maxSizeBytes;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.inUseGracePeriodMillis = inUseGracePeriodMillis;
+    }
+
+    /**
+     * Mark an entry as used now, by updating the modification time of its marker file.
+     *
+     * @param entryDir - The entry directory
+     * @throws IOException in case of any I/O error.
+     */
+    public static void markUsed(Path entryDir) throws IOException {
+        Path marker = entryDir.resolve(LAST_USED_FILE_NAME);
+        if (Files.exists(marker)) {
+            Files.setLastModifiedTime(marker, FileTime.fromMillis(System.currentTimeMillis()));
+        } else {
+            Files.write(marker, new byte[0]);
+        }
+    }
+
+    /**
+     * Delete the least recently used entries of the directory, if it exceeds the size cap.
+     *
+     * @param root - The directory
+     * @return a report of the directory contents, or null if the directory doesn't exist or was checked recently.
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if interrupted while waiting for another check of the directory.
+     */
+    public String apply(Path root) throws IOException, InterruptedException {
+        if (!Files.isDirectory(root)) {
+            return null;
+        }
+        try (Closeable ignored = FileLocks.lock(root.resolve(LOCK_FILE_NAME))) {
+            long now = System.currentTimeMillis();
+            Path lastCheck = root.resolve(LAST_CHECK_FILE_NAME);
+            if (Files.exists(lastCheck) && now - Files.getLastModifiedTime(lastCheck).toMillis() < checkIntervalMillis) {
+                return null;
+            }
+            List<Entry> entries = scan(root);
+            long totalSize = entries.stream().mapToLong(entry -> entry.size).sum();
+            List<Entry> evicted = new ArrayList<>();
+            if (maxSizeBytes > 0) {
+                entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+                for (Entry entry : entries) {
+                    if (totalSize <= maxSizeBytes) {
+                        break;
+                    }
+                    if (now - entry.lastUsed < inUseGracePeriodMillis) {
+                        continue;
+                    }
+                    Util.deleteRecursive(entry.dir.toFile());
+                    totalSize -= entry.size;
+                    evicted.add(entry);
+                }
+                entries.removeAll(evicted);
+            }
+            Files.write(lastCheck, new byte[0]);
+            return createReport(entries, evicted, totalSize);
+        }
+    }
+
+    /**
+     * @param root - The directory
+     * @return the entries in the directory.
+     */
+    private static List<Entry> scan(Path root) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> groupDirs = Files.newDirectoryStream(root, LruDirectoryCap::isEntryDir)) {
+            for (Path groupDir : groupDirs) {
+                try (DirectoryStream<Path> entryDirs = Files.newDirectoryStream(groupDir, LruDirectoryCap::isEntryDir)) {
+                    for (Path entryDir : entryDirs) {
+                        entries.add(scanEntry(root, entryDir));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry scanEntry(Path root, Path entryDir) throws IOException {
+        long size = 0;
+        // The entry was last used when it was added or marked as used. Access times are unreliable, so they are ignored.
+        long lastUsed = Files.getLastModifiedTime(entryDir).toMillis();
+        try (Stream<Path> files = Files.walk(entryDir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                size += attributes.size();
+                lastUsed = Math.max(lastUsed, attributes.lastModifiedTime().toMillis());
+            }
+        }
+        return new Entry(entryDir, root.relativize(entryDir).toString().replace(File.separatorChar, '/'), size, lastUsed);
+    }
+
+    private static boolean isEntryDir(Path path) {
+        return Files.isDirectory(path) && !path.getFileName().toString().startsWith(".");
+    }
+
+    private String createReport(List<Entry> entries, List<Entry> evicted, long totalSize) {
+        StringBuilder report = new StringBuilder(name).append(": ")
+                .append(FileUtils.byteCountToDisplaySize(totalSize));
+        if (maxSizeBytes > 0) {
+            report.append(" of ").append(FileUtils.byteCountToDisplaySize(maxSizeBytes));
+        }
+        report.append(entries.stream().map(Entry::toString).collect(Collectors.joining(", ", " [", "]")));
+        if (!evicted.isEmpty()) {
+            report.append(". Deleted the least recently used: ")
+                    .append(evicted.stream().map(Entry::toString).collect(Collectors.joining(", ")));
+        }
+        return report.toString();
+    }
+
+    private static class Entry {
+        private final Path dir;
+        private final String name;
+        private final long size;
+        private final long lastUsed;
+
+        private Entry(Path dir, String name, long size, long lastUsed) {
+            this.dir = dir;
+            this.name = name;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + FileUtils.byteCountToDisplaySize(size) + ")";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import io.jenkins.plugins.jfrog.OsUtils;
+import jenkins.security.MasterToSlaveCallable;
+
+import java.io.IOException;
+
+/**
+ * Get the OS/arch of the agent, as used in the JFrog CLI download path.
+ * Runs inside an agent.
+ */
+public class OsDetailsGetter extends MasterToSlaveCallable<String, IOException> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String call() throws IOException {
+        return OsUtils.getOsDetails();
+    }
+}
@@ -0,0 +1,286 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.Header;
+import org.jfrog.build.client.ProxyConfiguration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads a file in parallel HTTP Range chunks, written into a preallocated file.
+ * The completed chunks are recorded in a chunk map file, so an interrupted download resumes from the missing chunks.
+ * Redirects are followed without the credentials, which are sent only to the Artifactory server and not to the
+ * storage it may redirect to, such as S3 or GCS signed URLs.
+ * Runs inside an agent.
+ */
+public class RangedDownloader {
+    static final int CHUNK_SIZE = Integer.getInteger(RangedDownloader.class.getName() + ".chunkSize", 8 * 1024 * 1024);
+    static final int PARALLELISM = Integer.getInteger(RangedDownloader.class.getName() + ".parallelism", 4);
+    private static final int MAX_REDIRECTS = 5;
+
+    private final URI uri;
+    private final String authorization;
+    private final ProxyConfiguration proxy;
+    private final Path partFile;
+    private final Path chunkMapFile;
+    private final long size;
+    private final int chunkSize;
+
+    /**
+     * @param url         - The file URL
+     * @param user        - The user name, or empty
+     * @param password    - The password, or empty
+     * @param accessToken - The access token, or empty
+     * @param proxy       - The proxy to download through, or null
+     * @param partFile    - The file to download to
+     * @param size        - The file size
+     */
+    public RangedDownloader(String url, String user, String password, String accessToken, ProxyConfiguration proxy, Path partFile, long size) {
+        this(url, user, password, accessToken, proxy, partFile, size, CHUNK_SIZE);
+    }
+
+    RangedDownloader(String url, String user, String password, String accessToken, ProxyConfiguration proxy, Path partFile, long size, int chunkSize) {
+        // Artifactory version placeholders, such as [RELEASE], must be encoded
+        this.uri = URI.create(url.replace("[", "%5B").replace("]", "%5D"));
+        this.authorization = getAuthorization(user, password, accessToken);
+        this.proxy = proxy;
+        this.partFile = partFile;
+        this.chunkMapFile = partFile.resolveSibling(partFile.getFileName() + ".chunks");
+        this.size = size;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param headers - The response headers of a HEAD request to the file
+     * @return the file size, if the server supports range requests and the file is large enough to be split. Otherwise -1.
+     */
+    public static long getRangedSize(Header[] headers) {
+        boolean acceptRanges = false;
+        long size = -1;
+        for (Header header : headers) {
+            if (header.getName().equalsIgnoreCase("Accept-Ranges")) {
+                acceptRanges = StringUtils.containsIgnoreCase(header.getValue(), "bytes");
+            } else if (header.getName().equalsIgnoreCase("Content-Length")) {
+                size = NumberUtils.toLong(header.getValue(), -1);
+            }
+        }
+        return acceptRanges && size > CHUNK_SIZE ? size : -1;
+    }
+
+    /**
+     * Download the missing chunks of the file.
+     *
+     * @return false if the server ignored the range requests. In that case the file should be downloaded in a single stream.
+     * @throws IOException          in case of any I/O error.
+     * @throws InterruptedException if the download is interrupted.
+     */
+    public boolean download() throws IOException, InterruptedException {
+        int chunks = (int) ((size + chunkSize - 1) / chunkSize);
+        BitSet completed = readChunkMap();
+        if (completed == null) {
+            // Start over, with a preallocated file
+            completed = new BitSet(chunks);
+            try (RandomAccessFile file = new RandomAccessFile(partFile.toFile(), "rw")) {
+                file.setLength(size);
+            }
+            Files.write(chunkMapFile, (size + " " + chunkSize + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpClient client = createClient();
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+        try (FileChannel channel = FileChannel.open(partFile, StandardOpenOption.WRITE)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int chunk = completed.nextClearBit(0); chunk < chunks; chunk = completed.nextClearBit(chunk + 1)) {
+                int index = chunk;
+                results.add(executor.submit(() -> downloadChunk(client, channel, index)));
+            }
+            // Wait for all chunks, so the chunks that succeeded are recorded for the next attempt
+            boolean ranged = true;
+            Throwable failure = null;
+            for (Future<Boolean> result : results) {
+                try {
+                    ranged &= result.get();
+                } catch (ExecutionException e) {
+                    failure = failure == null ? e.getCause() : failure;
+                }
+            }
+            if (failure != null) {
+                throw failure instanceof IOException ? (IOException) failure : new IOException(failure);
+            }
+            return ranged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Delete the downloaded file and its chunk map, so the next download starts over.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(partFile);
+        Files.deleteIfExists(chunkMapFile);
+    }
+
+    /**
+     * @return an HTTP client that doesn't follow redirects, so the credentials aren't sent to the redirect location.
+     */
+    private HttpClient createClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30));
+        if (proxy != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxy.host, proxy.port)));
+            if (StringUtils.isNotBlank(proxy.username)) {
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        if (getRequestorType() != RequestorType.PROXY) {
+                            return null;
+                        }
+                        return new PasswordAuthentication(proxy.username, StringUtils.defaultString(proxy.password).toCharArray());
+                    }
+                });
+            }
+        }
+        return builder.build();
+    }
+
+    private boolean downloadChunk(HttpClient client, FileChannel channel, int index) throws IOException, InterruptedException {
+        long start = (long) index * chunkSize;
+        long end = Math.min(start + chunkSize, size) - 1;
+        HttpResponse<InputStream> response = send(client, "bytes=" + start + "-" + end);
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 200) {
+                return false;
+            }
+            if (response.statusCode() != 206) {
+                throw new IOException("Failed to download " + uri + ": HTTP " + response.statusCode());
+            }
+            byte[] buffer = new byte[64 * 1024];
+            long position = start;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+            if (position != end + 1) {
+                throw new IOException(String.format("Incomplete chunk %d of %s: received %d of %d bytes", index, uri, position - start, end + 1 - start));
+            }
+        }
+        // Persist the chunk before recording it as completed
+        channel.force(false);
+        recordChunk(index);
+        return true;
+    }
+
+    /**
+     * Send a range request, and follow the redirects of the server.
+     *
+     * @param client - The HTTP client
+     * @param range  - The Range header value
+     * @return the response of the last request.
+     */
+    private HttpResponse<InputStream> send(HttpClient client, String range) throws IOException, InterruptedException {
+        URI target = uri;
+        for (int redirects = 0; ; redirects++) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                    .header("Range", range)
+                    .timeout(Duration.ofMinutes(5));
+            if (authorization != null && isSameOrigin(uri, target)) {
+                request.header("Authorization", authorization);
+            }
+            HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            if (!isRedirect(response.statusCode())) {
+                return response;
+            }
+            response.body().close();
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (location == null || redirects >= MAX_REDIRECTS) {
+                throw new IOException("Failed to download " + uri + ": HTTP " + response.statusCode() +
+                        (location == null ? " without a Location header" : " after " + MAX_REDIRECTS + " redirects"));
+            }
+            target = target.resolve(location);
+        }
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308;
+    }
+
+    private static boolean isSameOrigin(URI uri, URI other) {
+        return StringUtils.equalsIgnoreCase(uri.getScheme(), other.getScheme()) &&
+                StringUtils.equalsIgnoreCase(uri.getHost(), other.getHost()) &&
+                Objects.equals(getPort(uri), getPort(other));
+    }
+
+    private static int getPort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private synchronized void recordChunk(int index) throws IOException {
+        Files.write(chunkMapFile, (index + "\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    /**
+     * @return the completed chunks of a previous download of the same file, or null if there isn't any.
+     */
+    private BitSet readChunkMap() throws IOException {
+        if (!Files.isRegularFile(partFile) || !Files.isRegularFile(chunkMapFile) || Files.size(partFile) != size) {
+            return null;
+        }
+        List<String> lines = Files.readAllLines(chunkMapFile, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(size + " " + chunkSize)) {
+            return null;
+        }
+        BitSet completed = new BitSet();
+        for (String line : lines.subList(1, lines.size())) {
+            int index = NumberUtils.toInt(line.trim(), -1);
+            if (index >= 0) {
+                completed.set(index);
+            }
+        }
+        return completed;
+    }
+
+    private static String getAuthorization(String user, String password, String accessToken) {
+        if (StringUtils.isNotBlank(accessToken)) {
+            return "Bearer " + accessToken;
+        }
+        if (StringUtils.isNotBlank(user)) {
+            return "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+}
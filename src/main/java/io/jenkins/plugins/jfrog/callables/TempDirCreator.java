@@ -19,15 +19,26 @@ public class TempDirCreator extends MasterToSlaveFileCallable<FilePath> {
 
     @Override
     public FilePath invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
-        FilePath tempDir = ws.sibling(ws.getName() + Objects.toString(workspaceList, "@") + "tmp");
-        if (tempDir == null) {
-            throw new RuntimeException("Failed to create JFrog CLI temporary directory");
-        }
-        tempDir = tempDir.child("jfrog");
+        FilePath tempDir = getTempDir(workspaceList, ws);
         File tempDirFile = new File(tempDir.getRemote());
         if (tempDirFile.mkdirs()) {
             tempDirFile.deleteOnExit();
         }
         return tempDir;
     }
+
+    /**
+     * Get the path of the temporary directory of a workspace, without creating it.
+     *
+     * @param workspaceList - The token that combines the project name and unique number of the workspace
+     * @param ws            - The workspace
+     * @return the temporary directory path.
+     */
+    public static FilePath getTempDir(String workspaceList, FilePath ws) {
+        FilePath tempDir = ws.sibling(ws.getName() + Objects.toString(workspaceList, "@") + "tmp");
+        if (tempDir == null) {
+            throw new RuntimeException("Failed to create JFrog CLI temporary directory");
+        }
+        return tempDir.child("jfrog");
+    }
 }
@@ -2,8 +2,8 @@ package io.jenkins.plugins.jfrog.configuration;
 
 import com.cloudbees.plugins.credentials.common.StandardListBoxModel;
 import hudson.Extension;
+import hudson.ExtensionList;
 import hudson.model.Descriptor;
-import hudson.model.Hudson;
 import hudson.model.Item;
 import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
@@ -43,6 +43,9 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
     public static final class DescriptorImpl extends Descriptor<GlobalConfiguration> {
         private List<JFrogPlatformInstance> jfrogInstances;
         private boolean allowHttpConnections;
+        private boolean shortLivedTokens;
+        // Replaced whenever the instances change
+        private transient volatile JFrogPlatformInstances snapshot = JFrogPlatformInstances.EMPTY;
 
         @SuppressWarnings("unused")
         public DescriptorImpl() {
@@ -50,6 +53,12 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
             load();
         }
 
+        @Override
+        public synchronized void load() {
+            super.load();
+            snapshot = new JFrogPlatformInstances(jfrogInstances);
+        }
+
         @SuppressWarnings("unused")
         @RequirePOST
         public ListBoxModel doFillCredentialsIdItems(@AncestorInPath Item project) {
@@ -73,18 +82,8 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
             if (isBlank(value)) {
                 return FormValidation.error("Please set server ID");
             }
-            List<JFrogPlatformInstance> JFrogPlatformInstances = getJFrogPlatformInstances();
-            if (JFrogPlatformInstances == null) {
-                return FormValidation.ok();
-            }
-            int countServersByValueAsName = 0;
-            for (JFrogPlatformInstance JFrogPlatformInstance : JFrogPlatformInstances) {
-                if (JFrogPlatformInstance.getId().equals(value)) {
-                    countServersByValueAsName++;
-                    if (countServersByValueAsName > 1) {
-                        return FormValidation.error("Duplicated JFrog platform instances ID");
-                    }
-                }
+            if (getSnapshot().isDuplicated(value)) {
+                return FormValidation.error("Duplicated JFrog platform instances ID");
             }
             return FormValidation.ok();
         }
@@ -141,6 +140,7 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
             Jenkins jenkins = Jenkins.getInstanceOrNull();
             if (jenkins != null && jenkins.hasPermission(Jenkins.ADMINISTER)) {
                 setAllowHttpConnections(o.getBoolean("allowHttpConnections"));
+                setShortLivedTokens(o.optBoolean("shortLivedTokens"));
                 configureJFrogInstances(req, o);
                 save();
                 return super.configure(req, o);
@@ -239,6 +239,14 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
          */
         public void setJfrogInstances(List<JFrogPlatformInstance> jfrogInstances) {
             this.jfrogInstances = jfrogInstances;
+            this.snapshot = new JFrogPlatformInstances(jfrogInstances);
+        }
+
+        /**
+         * @return an immutable snapshot of the configured instances.
+         */
+        public JFrogPlatformInstances getSnapshot() {
+            return snapshot;
         }
 
         /**
@@ -255,6 +263,20 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
         public void setAllowHttpConnections(boolean allowHttpConnections) {
             this.allowHttpConnections = allowHttpConnections;
         }
+
+        /**
+         * Used by Jenkins Jelly for displaying values.
+         */
+        public boolean isShortLivedTokens() {
+            return shortLivedTokens;
+        }
+
+        /**
+         * Used by Jenkins Jelly for setting values.
+         */
+        public void setShortLivedTokens(boolean shortLivedTokens) {
+            this.shortLivedTokens = shortLivedTokens;
+        }
     }
 
     /**
@@ -290,15 +312,40 @@ public class JFrogPlatformBuilder extends GlobalConfiguration {
 
     /**
      * Returns the list of {@link JFrogPlatformInstance} configured.
+     * The list and its instances are shared, and must not be modified.
      *
      * @return can be empty but never null.
      */
     public static List<JFrogPlatformInstance> getJFrogPlatformInstances() {
-        JFrogPlatformBuilder.DescriptorImpl descriptor = (JFrogPlatformBuilder.DescriptorImpl)
-                Hudson.get().getDescriptor(JFrogPlatformBuilder.class);
-        if (descriptor == null) {
-            return new ArrayList<>();
+        return getSnapshot().getInstances();
+    }
+
+    /**
+     * Returns the configured {@link JFrogPlatformInstance} with the given server ID.
+     * The instance is shared, and must not be modified.
+     *
+     * @param id - The server ID
+     * @return the instance, or null if there isn't any.
+     */
+    public static JFrogPlatformInstance getJFrogPlatformInstance(String id) {
+        return getSnapshot().get(id);
+    }
+
+    /**
+     * Return true if the builds should exchange the credentials of the instances for short-lived access tokens.
+     *
+     * @return true if short-lived access tokens should be used.
+     */
+    public static boolean useShortLivedTokens() {
+        ExtensionList<DescriptorImpl> descriptors = ExtensionList.lookup(DescriptorImpl.class);
+        return !descriptors.isEmpty() && descriptors.get(0).isShortLivedTokens();
+    }
+
+    private static JFrogPlatformInstances getSnapshot() {
+        ExtensionList<DescriptorImpl> descriptors = ExtensionList.lookup(DescriptorImpl.class);
+        if (descriptors.isEmpty()) {
+            return JFrogPlatformInstances.EMPTY;
         }
-        return descriptor.getJfrogInstances();
+        return descriptors.get(0).getSnapshot();
     }
 }
@@ -46,6 +46,16 @@ public class JFrogPlatformInstance implements Serializable {
         return JFrogPlatformBuilder.getJFrogPlatformInstances();
     }
 
+    /**
+     * The configured instances are shared, so a copy is used to set credentials resolved at runtime.
+     *
+     * @param credentialsConfig - The credentials of the copy
+     * @return a copy of this instance with the given credentials.
+     */
+    public JFrogPlatformInstance withCredentialsConfig(CredentialsConfig credentialsConfig) {
+        return new JFrogPlatformInstance(id, url, credentialsConfig, artifactoryUrl, distributionUrl, xrayUrl);
+    }
+
     // Required by external plugins (JCasC).
     @SuppressWarnings("unused")
     public String getServerId() {
@@ -0,0 +1,57 @@
+package io.jenkins.plugins.jfrog.configuration;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of the configured JFrog Platform instances, indexed by their server IDs.
+ * A new snapshot replaces the previous one whenever the configuration changes, so readers always see a consistent
+ * configuration without locking.
+ */
+public class JFrogPlatformInstances {
+    static final JFrogPlatformInstances EMPTY = new JFrogPlatformInstances(null);
+
+    private final List<JFrogPlatformInstance> instances;
+    private final Map<String, JFrogPlatformInstance> instancesById;
+    private final Set<String> duplicatedIds;
+
+    /**
+     * @param instances - The configured instances, by their configured order. Can be null.
+     */
+    JFrogPlatformInstances(List<JFrogPlatformInstance> instances) {
+        List<JFrogPlatformInstance> instancesCopy = instances == null ? new ArrayList<>() : new ArrayList<>(instances);
+        Map<String, JFrogPlatformInstance> instancesById = new HashMap<>();
+        Set<String> duplicatedIds = new HashSet<>();
+        for (JFrogPlatformInstance instance : instancesCopy) {
+            // The first instance with a duplicated ID is used, as in the previous linear lookup
+            if (instancesById.putIfAbsent(instance.getId(), instance) != null) {
+                duplicatedIds.add(instance.getId());
+            }
+        }
+        this.instances = Collections.unmodifiableList(instancesCopy);
+        this.instancesById = Collections.unmodifiableMap(instancesById);
+        this.duplicatedIds = Collections.unmodifiableSet(duplicatedIds);
+    }
+
+    /**
+     * @return the configured instances, by their configured order. Can be empty but never null.
+     */
+    public List<JFrogPlatformInstance> getInstances() {
+        return instances;
+    }
+
+    /**
+     * @param id - The server ID
+     * @return the instance with the server ID, or null if there isn't any.
+     */
+    public JFrogPlatformInstance get(String id) {
+        return id == null ? null : instancesById.get(id);
+    }
+
+    /**
+     * @param id - The server ID
+     * @return true if more than one instance is configured with the server ID.
+     */
+    public boolean isDuplicated(String id) {
+        return duplicatedIds.contains(id);
+    }
+}
@@ -18,6 +18,7 @@ public class JenkinsProxyConfiguration extends ProxyConfiguration {
     private static final Pattern HOST_NAME_PATTERN = Pattern.compile("^.*?://?([\\w.-]+).*");
     public List<Pattern> noProxyHostPatterns;
     public String noProxy;
+    private NoProxyHosts noProxyHosts = NoProxyHosts.get(null);
 
     public JenkinsProxyConfiguration() {
         hudson.ProxyConfiguration proxy = Jenkins.get().getProxy();
@@ -29,7 +30,9 @@ public class JenkinsProxyConfiguration extends ProxyConfiguration {
         this.username = proxy.getUserName();
         this.password = Secret.toString(proxy.getSecretPassword());
         this.noProxy = proxy.getNoProxyHost();
-        this.noProxyHostPatterns = proxy.getNoProxyHostPatterns();
+        // The 'No Proxy Host' list is compiled only when it changes
+        this.noProxyHosts = NoProxyHosts.get(noProxy);
+        this.noProxyHostPatterns = noProxyHosts.getPatterns();
     }
 
     /**
@@ -61,12 +64,15 @@ public class JenkinsProxyConfiguration extends ProxyConfiguration {
         if (!matcher.matches()) {
             return false;
         }
-        String host = matcher.group(1);
-        for (Pattern noProxyHostPattern : noProxyHostPatterns) {
-            if (noProxyHostPattern.matcher(host).matches()) {
-                return true;
-            }
-        }
-        return false;
+        return noProxyHosts.matches(matcher.group(1));
+    }
+
+    /**
+     * Return the 'No Proxy Host' list in the comma-separated format expected by JFrog CLI.
+     *
+     * @return the NO_PROXY environment variable value.
+     */
+    public String getNoProxyValue() {
+        return noProxyHosts.getNoProxyValue();
     }
 }
@@ -0,0 +1,166 @@
+package io.jenkins.plugins.jfrog.configuration;
+
+import hudson.ProxyConfiguration;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The 'No Proxy Host' list of the Jenkins proxy configuration, compiled for fast lookups.
+ * Jenkins matches each entry as a regular expression in which '*' matches anything. Instead of running all patterns
+ * on each host, exact hosts are kept in a hash set and '*.domain' entries in a trie of reversed domain labels.
+ * Only the entries that fit neither of these are matched as regular expressions.
+ * The compiled list is cached, and recompiled when the 'No Proxy Host' list changes.
+ */
+public class NoProxyHosts implements Serializable {
+    private static final long serialVersionUID = 1L;
+    // The separators of the 'No Proxy Host' entries in Jenkins
+    private static final Pattern ENTRY_SEPARATORS_PATTERN = Pattern.compile("[ \t\n,|]+");
+    private static final Pattern EXACT_HOST_PATTERN = Pattern.compile("[\\w.-]+");
+    private static final Pattern NO_PROXY_SEPARATORS_PATTERN = Pattern.compile("[\\s|;]+");
+    private static final Pattern MULTIPLE_COMMAS_PATTERN = Pattern.compile(",+");
+    private static final Pattern EDGE_COMMAS_PATTERN = Pattern.compile("^,|,$");
+    private static volatile NoProxyHosts cached = new NoProxyHosts(null);
+
+    private final String noProxyHost;
+    private final String noProxyValue;
+    private final List<Pattern> patterns;
+    private final Set<String> exactHosts = new HashSet<>();
+    private final DomainNode domains = new DomainNode();
+    private final List<Pattern> fallbackPatterns = new ArrayList<>();
+    private boolean matchAll;
+
+    private NoProxyHosts(String noProxyHost) {
+        this.noProxyHost = noProxyHost;
+        this.noProxyValue = StringUtils.isBlank(noProxyHost) ? "" : createNoProxyValue(noProxyHost);
+        this.patterns = Collections.unmodifiableList(ProxyConfiguration.getNoProxyHostPatterns(noProxyHost));
+        String[] entries = noProxyHost == null ? new String[0] : ENTRY_SEPARATORS_PATTERN.split(noProxyHost);
+        for (String entry : entries) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            if ("*".equals(entry)) {
+                matchAll = true;
+            } else if (EXACT_HOST_PATTERN.matcher(entry).matches()) {
+                exactHosts.add(entry);
+            } else if (entry.startsWith("*.") && EXACT_HOST_PATTERN.matcher(entry.substring(2)).matches()) {
+                domains.add(entry.substring(2));
+            } else {
+                // Compiled like Jenkins does
+                fallbackPatterns.add(Pattern.compile(entry.replace(".", "\\.").replace("*", ".*")));
+            }
+        }
+    }
+
+    /**
+     * Get the compiled 'No Proxy Host' list. The last compiled list is reused as long as the list doesn't change.
+     *
+     * @param noProxyHost - The 'No Proxy Host' list from the Jenkins proxy configuration
+     * @return the compiled list.
+     */
+    public static NoProxyHosts get(String noProxyHost) {
+        NoProxyHosts noProxyHosts = cached;
+        if (!Objects.equals(noProxyHosts.noProxyHost, noProxyHost)) {
+            noProxyHosts = new NoProxyHosts(noProxyHost);
+            cached = noProxyHosts;
+        }
+        return noProxyHosts;
+    }
+
+    /**
+     * Return true if the host matches one of the 'No Proxy Host' entries.
+     *
+     * @param host - The host name
+     * @return true if should bypass proxy.
+     */
+    public boolean matches(String host) {
+        if (matchAll || exactHosts.contains(host) || domains.matches(host)) {
+            return true;
+        }
+        for (Pattern pattern : fallbackPatterns) {
+            if (pattern.matcher(host).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the 'No Proxy Host' entries as Jenkins compiles them.
+     */
+    public List<Pattern> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @return the 'No Proxy Host' list in the comma-separated format expected by JFrog CLI.
+     */
+    public String getNoProxyValue() {
+        return noProxyValue;
+    }
+
+    /**
+     * Converts a list of No Proxy Hosts received by Jenkins into a comma-separated string format expected by JFrog CLI.
+     *
+     * @param noProxy - A string representing the list of No Proxy Hosts.
+     * @return A comma-separated string of No Proxy Hosts.
+     */
+    public static String createNoProxyValue(String noProxy) {
+        // Trim leading and trailing spaces, Replace '|' and ';' with spaces and normalize whitespace
+        String noProxyListRemoveSpaceAndPipe = NO_PROXY_SEPARATORS_PATTERN.matcher(noProxy.trim()).replaceAll(",");
+        // Replace multiple commas with a single comma, and remove the last one if present
+        String noProxyList = MULTIPLE_COMMAS_PATTERN.matcher(noProxyListRemoveSpaceAndPipe).replaceAll(",");
+        return EDGE_COMMAS_PATTERN.matcher(noProxyList).replaceAll("");
+    }
+
+    /**
+     * A node in the trie of the '*.domain' entries. The trie is keyed by the domain labels, starting from the last one.
+     */
+    private static class DomainNode implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final Map<String, DomainNode> children = new HashMap<>();
+        // True if a '*.domain' entry ends in this node
+        private boolean wildcard;
+
+        private void add(String domain) {
+            DomainNode node = this;
+            String[] labels = domain.split("\\.", -1);
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(labels[i], label -> new DomainNode());
+            }
+            node.wildcard = true;
+        }
+
+        /**
+         * @param host - The host name
+         * @return true if the host is a subdomain of one of the '*.domain' entries.
+         */
+        private boolean matches(String host) {
+            if (children.isEmpty()) {
+                return false;
+            }
+            DomainNode node = this;
+            String[] labels = host.split("\\.", -1);
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.get(labels[i]);
+                if (node == null) {
+                    return false;
+                }
+                // '*.domain' requires at least one more label before the domain
+                if (node.wildcard && i > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
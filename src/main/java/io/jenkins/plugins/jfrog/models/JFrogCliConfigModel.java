@@ -0,0 +1,41 @@
+package io.jenkins.plugins.jfrog.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The JFrog CLI configuration file model, as stored in the 'jfrog-cli.conf.v5' file.
+ * Newer JFrog CLI versions convert this file to their own config version on first use.
+ **/
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class JFrogCliConfigModel {
+    public static final String CONFIG_VERSION = "5";
+    public static final String CONFIG_FILE_NAME = "jfrog-cli.conf.v" + CONFIG_VERSION;
+
+    private List<Server> servers = new ArrayList<>();
+    private String version = CONFIG_VERSION;
+    private boolean enc;
+
+    @Getter
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Server {
+        private String url;
+        private String artifactoryUrl;
+        private String distributionUrl;
+        private String xrayUrl;
+        private String user;
+        private String password;
+        private String accessToken;
+        private String serverId;
+        @JsonProperty("isDefault")
+        private boolean defaultServer;
+    }
+}
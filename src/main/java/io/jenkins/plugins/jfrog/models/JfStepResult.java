@@ -0,0 +1,82 @@
+package io.jenkins.plugins.jfrog.models;
+
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * The result of the 'jf' step, returned when the 'returnResult' option is set.
+ * The result is kept in the pipeline program state, so it only holds the output if it is small enough to be kept in memory.
+ * When the 'returnStdoutFile' option is set, the output is read from the file instead.
+ **/
+public class JfStepResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int exitCode;
+    private final long duration;
+    private final Map<String, Object> summary;
+    private final String stdout;
+    private final String stdoutFile;
+
+    public JfStepResult(int exitCode, long duration, Map<String, Object> summary, String stdout, String stdoutFile) {
+        this.exitCode = exitCode;
+        this.duration = duration;
+        this.summary = summary;
+        this.stdout = stdout;
+        this.stdoutFile = stdoutFile;
+    }
+
+    /**
+     * @return the exit code of the 'jf' command.
+     */
+    @Whitelisted
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * @return true if the 'jf' command succeeded.
+     */
+    @Whitelisted
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    /**
+     * @return the duration of the 'jf' step in milliseconds.
+     */
+    @Whitelisted
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the last JSON object printed by the 'jf' command, such as the command summary. Null if there isn't any.
+     */
+    @Whitelisted
+    public Map<String, Object> getSummary() {
+        return summary;
+    }
+
+    /**
+     * @return the output of the 'jf' command. Null if the output was written to a file.
+     */
+    @Whitelisted
+    public String getStdout() {
+        return stdout;
+    }
+
+    /**
+     * @return the path of the file containing the output of the 'jf' command. Null if the 'returnStdoutFile' option wasn't set.
+     */
+    @Whitelisted
+    public String getStdoutFile() {
+        return stdoutFile;
+    }
+
+    @Override
+    public String toString() {
+        return "JfStepResult{exitCode=" + exitCode + ", duration=" + duration + "ms, stdoutFile=" + stdoutFile + "}";
+    }
+}
@@ -0,0 +1,154 @@
+package io.jenkins.plugins.jfrog.plugins;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of the credentials resolved for the JFrog Platform instances, by the credentials ID and the item the
+ * credentials are resolved for. Looking up credentials walks all credentials providers and folder stores, which is
+ * slow on controllers with many folders and credentials.
+ * The cache is cleared whenever a configuration other than a build is saved, which includes the changes to the
+ * credentials stores of Jenkins and of folders. Entries also expire after a while, to pick up changes in external
+ * credentials providers.
+ */
+public class CredentialsCache {
+    static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong(CredentialsCache.class.getName() + ".ttlSeconds", 300));
+    // The cache is cleared when it grows beyond this size
+    private static final int MAX_ENTRIES = Integer.getInteger(CredentialsCache.class.getName() + ".maxEntries", 1000);
+    private static final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    // Incremented when the cache is cleared, so credentials resolved before the change are not cached
+    private static final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param credentialsId - The credentials ID
+     * @param item          - The item the credentials are resolved for, or null for global credentials
+     * @return the cached credentials, or null on a cache miss.
+     */
+    static Credentials getIfPresent(String credentialsId, Item item) {
+        if (TTL_MILLIS <= 0) {
+            return null;
+        }
+        Entry entry = entries.get(new Key(credentialsId, item));
+        if (entry != null && System.currentTimeMillis() - entry.time < TTL_MILLIS) {
+            hits.incrementAndGet();
+            return entry.credentials;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache resolved credentials, unless the cache was cleared since they started to be resolved.
+     *
+     * @param credentialsId      - The credentials ID
+     * @param item               - The item the credentials were resolved for, or null for global credentials
+     * @param credentials        - The resolved credentials
+     * @param resolvedGeneration - The {@link #getGeneration()} before the credentials started to be resolved
+     */
+    static void put(String credentialsId, Item item, Credentials credentials, long resolvedGeneration) {
+        if (TTL_MILLIS <= 0) {
+            return;
+        }
+        Key key = new Key(credentialsId, item);
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(credentials, System.currentTimeMillis()));
+        if (generation.get() != resolvedGeneration) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * @return the cache generation, which changes whenever the cache is cleared.
+     */
+    static long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return the number of lookups served from the cache.
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that resolved the credentials.
+     */
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Remove all cached credentials.
+     */
+    public static void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Clears the cache when a configuration changes. Builds are saved often and don't hold credentials, so they are ignored.
+     */
+    @Extension
+    @SuppressWarnings("unused")
+    public static class InvalidationListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (!(o instanceof Run)) {
+                clear();
+            }
+        }
+    }
+
+    private static class Key {
+        private final String credentialsId;
+        private final String itemFullName;
+
+        private Key(String credentialsId, Item item) {
+            this.credentialsId = credentialsId;
+            this.itemFullName = item == null ? null : item.getFullName();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(credentialsId, other.credentialsId) && Objects.equals(itemFullName, other.itemFullName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(credentialsId, itemFullName);
+        }
+    }
+
+    private static class Entry {
+        private final Credentials credentials;
+        private final long time;
+
+        private Entry(Credentials credentials, long time) {
+            this.credentials = credentials;
+            this.time = time;
+        }
+    }
+}
@@ -12,8 +12,7 @@ import io.jenkins.plugins.jfrog.configuration.Credentials;
 import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.plaincredentials.StringCredentials;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import static com.cloudbees.plugins.credentials.CredentialsProvider.lookupCredentials;
 
@@ -29,30 +28,72 @@ public class PluginsUtils {
 
     /**
      * lookup for credentials configured using jenkins credentials plugin.
+     * The resolved credentials are cached by {@link CredentialsCache}.
      *
      * @param credentialsId uniq id given to the configured credentials.
      * @param item          some item (job or folder).
      * @return credentials. an empty field can't be null, will be represented by empty string.
      */
-    @SuppressWarnings("deprecation") // deprecated lookupCredentials
     public static Credentials credentialsLookup(String credentialsId, Item item) {
-        // Looking for accessToken
-        StringCredentials accessCred = PluginsUtils.accessTokenCredentialsLookup(credentialsId, item);
-        if (accessCred != null) {
-            return new Credentials(Credentials.EMPTY_SECRET, Credentials.EMPTY_SECRET, accessCred.getSecret());
-        } else {
-            // Looking for username and password
-            UsernamePasswordCredentials usernamePasswordCredentials = CredentialsMatchers.firstOrNull(
-                    lookupCredentials(UsernamePasswordCredentials.class, item),
-                    CredentialsMatchers.withId(credentialsId)
-            );
-            if (usernamePasswordCredentials != null) {
-                return new Credentials(Secret.fromString(usernamePasswordCredentials.getUsername()),
-                        usernamePasswordCredentials.getPassword(), Credentials.EMPTY_SECRET);
+        return credentialsLookup(Collections.singleton(credentialsId), item).get(credentialsId);
+    }
+
+    /**
+     * lookup for several credentials configured using jenkins credentials plugin, in a single pass over the
+     * credentials providers. The resolved credentials are cached by {@link CredentialsCache}.
+     *
+     * @param credentialsIds uniq ids given to the configured credentials.
+     * @param item           some item (job or folder).
+     * @return credentials by their ids. Credentials that were not found are represented by empty credentials.
+     */
+    public static Map<String, Credentials> credentialsLookup(Collection<String> credentialsIds, Item item) {
+        Map<String, Credentials> credentials = new HashMap<>();
+        Set<String> missingIds = new HashSet<>();
+        for (String credentialsId : credentialsIds) {
+            Credentials cached = CredentialsCache.getIfPresent(credentialsId, item);
+            if (cached != null) {
+                credentials.put(credentialsId, cached);
+            } else {
+                missingIds.add(credentialsId);
             }
-            return Credentials.EMPTY_CREDENTIALS;
         }
+        if (missingIds.isEmpty()) {
+            return credentials;
+        }
+        long generation = CredentialsCache.getGeneration();
+        Map<String, Credentials> resolved = resolveCredentials(missingIds, item);
+        for (String credentialsId : missingIds) {
+            Credentials resolvedCredentials = resolved.getOrDefault(credentialsId, Credentials.EMPTY_CREDENTIALS);
+            CredentialsCache.put(credentialsId, item, resolvedCredentials, generation);
+            credentials.put(credentialsId, resolvedCredentials);
+        }
+        return credentials;
+    }
 
+    /**
+     * Resolve credentials in a single lookup. An access token takes precedence over a username and password with the same id.
+     */
+    @SuppressWarnings("deprecation") // deprecated lookupCredentials
+    private static Map<String, Credentials> resolveCredentials(Set<String> credentialsIds, Item item) {
+        Map<String, StringCredentials> accessTokens = new HashMap<>();
+        Map<String, UsernamePasswordCredentials> usernamePasswords = new HashMap<>();
+        for (StandardCredentials credentials : lookupCredentials(StandardCredentials.class, item)) {
+            if (!credentialsIds.contains(credentials.getId())) {
+                continue;
+            }
+            // The first credentials of each type are used, as the providers are ordered by precedence
+            if (credentials instanceof StringCredentials) {
+                accessTokens.putIfAbsent(credentials.getId(), (StringCredentials) credentials);
+            } else if (credentials instanceof UsernamePasswordCredentials) {
+                usernamePasswords.putIfAbsent(credentials.getId(), (UsernamePasswordCredentials) credentials);
+            }
+        }
+        Map<String, Credentials> resolved = new HashMap<>();
+        usernamePasswords.forEach((credentialsId, usernamePassword) -> resolved.put(credentialsId,
+                new Credentials(Secret.fromString(usernamePassword.getUsername()), usernamePassword.getPassword(), Credentials.EMPTY_SECRET)));
+        accessTokens.forEach((credentialsId, accessToken) -> resolved.put(credentialsId,
+                new Credentials(Credentials.EMPTY_SECRET, Credentials.EMPTY_SECRET, accessToken.getSecret())));
+        return resolved;
     }
 
     /**
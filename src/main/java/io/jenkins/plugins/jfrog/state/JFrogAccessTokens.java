@@ -0,0 +1,201 @@
+package io.jenkins.plugins.jfrog.state;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.ProxyConfiguration;
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the short-lived access tokens that the configured usernames and passwords are exchanged for in a run.
+ * Each server's credentials are exchanged once per run, and again when half of the token's lifetime has passed.
+ * Concurrent steps wait for the token being created for the same server, without blocking the steps of other servers.
+ * If the token can't be created, the configured credentials are used, and the token is requested again after a while.
+ * The tokens are kept in the {@link JFrogRunState} of the run, and are never saved with the run.
+ **/
+public class JFrogAccessTokens {
+    private static final Logger LOGGER = Logger.getLogger(JFrogAccessTokens.class.getName());
+    static final String TOKENS_API = "/access/api/v1/tokens";
+    static final long EXPIRY_SECONDS = Long.getLong(JFrogAccessTokens.class.getName() + ".expirySeconds", TimeUnit.HOURS.toSeconds(1));
+    // The time to use the configured credentials after failing to create a token, before requesting a token again
+    static final long RETRY_AFTER_FAILURE_SECONDS = Long.getLong(JFrogAccessTokens.class.getName() + ".retryAfterFailureSeconds", TimeUnit.MINUTES.toSeconds(5));
+    private static final Duration TIMEOUT = Duration.ofMinutes(1);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    // Keyed by the server ID and the username. Guarded by itself, which is held only to look up and replace the entries.
+    private final Map<String, CompletableFuture<AccessToken>> tokens = new HashMap<>();
+    private final long retryAfterFailureMillis;
+
+    public JFrogAccessTokens() {
+        this(TimeUnit.SECONDS.toMillis(RETRY_AFTER_FAILURE_SECONDS));
+    }
+
+    JFrogAccessTokens(long retryAfterFailureMillis) {
+        this.retryAfterFailureMillis = retryAfterFailureMillis;
+    }
+
+    /**
+     * Get the credentials JFrog CLI should use for the server. A username and password are exchanged for a short-lived
+     * access token. If the server can't create the token, the configured credentials are used.
+     *
+     * @param instance    - The JFrog Platform instance
+     * @param credentials - The configured credentials of the instance
+     * @return credentials with a short-lived access token, or the input credentials.
+     */
+    public Credentials getCredentials(JFrogPlatformInstance instance, Credentials credentials) {
+        if (StringUtils.isNotEmpty(credentials.getPlainTextAccessToken()) || StringUtils.isEmpty(credentials.getPlainTextUsername())
+                || StringUtils.isBlank(instance.getUrl())) {
+            return credentials;
+        }
+        String key = instance.getId() + "/" + credentials.getPlainTextUsername();
+        CompletableFuture<AccessToken> future;
+        CompletableFuture<AccessToken> created = null;
+        synchronized (tokens) {
+            future = tokens.get(key);
+            if (future == null || needsRefresh(future, System.currentTimeMillis())) {
+                created = new CompletableFuture<>();
+                tokens.put(key, created);
+                future = created;
+            }
+        }
+        if (created != null) {
+            // The token is created outside the lock, so the steps of other servers don't wait for it
+            try {
+                created.complete(createAccessToken(instance, credentials));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        AccessToken accessToken;
+        try {
+            accessToken = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return credentials;
+        } catch (ExecutionException e) {
+            return credentials;
+        }
+        if (accessToken.token == null) {
+            return credentials;
+        }
+        return new Credentials(Credentials.EMPTY_SECRET, Credentials.EMPTY_SECRET, accessToken.token);
+    }
+
+    /**
+     * A token is reused while at least half of its lifetime is left, so that a JFrog CLI command configured with it
+     * can run for at least half of the expiry time before the token expires.
+     *
+     * @param future - The token of a server, which may still be being created
+     * @param now    - The current time in milliseconds
+     * @return true if half of the token's lifetime has passed, or if the token creation failed and should be retried.
+     */
+    static boolean needsRefresh(CompletableFuture<AccessToken> future, long now) {
+        if (!future.isDone()) {
+            return false;
+        }
+        if (future.isCompletedExceptionally()) {
+            return true;
+        }
+        AccessToken accessToken = future.join();
+        if (accessToken.token == null) {
+            return now >= accessToken.expiresAt;
+        }
+        return now - accessToken.issuedAt >= (accessToken.expiresAt - accessToken.issuedAt) / 2;
+    }
+
+    /**
+     * Create an access token for the server.
+     *
+     * @return the access token, or an access token without a token, which expires when the creation should be retried.
+     */
+    private AccessToken createAccessToken(JFrogPlatformInstance instance, Credentials credentials) {
+        try {
+            return createAccessToken(instance.getUrl(), credentials, EXPIRY_SECONDS);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, String.format("Couldn't create a short-lived access token for server '%s'. " +
+                    "Using the configured credentials.", instance.getId()), e);
+            long now = System.currentTimeMillis();
+            return new AccessToken(null, now, now + retryAfterFailureMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Retry in the next step
+            long now = System.currentTimeMillis();
+            return new AccessToken(null, now, now);
+        }
+    }
+
+    /**
+     * Exchange a username and password for an access token of the user.
+     *
+     * @param platformUrl   - The JFrog Platform URL
+     * @param credentials   - The username and password
+     * @param expirySeconds - The requested token expiry in seconds
+     * @return the access token.
+     * @throws IOException          if the token couldn't be created.
+     * @throws InterruptedException if the request is interrupted.
+     */
+    static AccessToken createAccessToken(String platformUrl, Credentials credentials, long expirySeconds) throws IOException, InterruptedException {
+        String auth = credentials.getPlainTextUsername() + ":" + credentials.getPlainTextPassword();
+        String body = mapper.createObjectNode()
+                .put("scope", "applied-permissions/user")
+                .put("expires_in", expirySeconds)
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(StringUtils.removeEnd(platformUrl, "/") + TOKENS_API))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long requestTime = System.currentTimeMillis();
+        HttpResponse<String> response = ProxyConfiguration.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(String.format("Failed to create an access token: %d %s", response.statusCode(), StringUtils.abbreviate(response.body(), 200)));
+        }
+        JsonNode json = mapper.readTree(response.body());
+        String token = json.path("access_token").asText();
+        if (StringUtils.isEmpty(token)) {
+            throw new IOException("Failed to create an access token: the response doesn't contain a token");
+        }
+        long expiresIn = json.path("expires_in").asLong(expirySeconds);
+        // An expiry of 0 means the token never expires
+        long expiresAt = expiresIn > 0 ? requestTime + TimeUnit.SECONDS.toMillis(expiresIn) : Long.MAX_VALUE;
+        return new AccessToken(Secret.fromString(token), requestTime, expiresAt);
+    }
+
+    static class AccessToken {
+        private final Secret token;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        AccessToken(Secret token, long issuedAt, long expiresAt) {
+            this.token = token;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        Secret getToken() {
+            return token;
+        }
+
+        long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
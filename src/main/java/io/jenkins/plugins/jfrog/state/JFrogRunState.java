@@ -0,0 +1,89 @@
+package io.jenkins.plugins.jfrog.state;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Run;
+import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The state the plugin keeps for a running build: the key that encrypts the JFrog CLI config, the short-lived access
+ * tokens and the JFrog CLI home directories configured with them.
+ * Unlike actions, the state is kept in memory only. It is never saved to the build.xml file, and is dropped with the run.
+ * The state is lost when Jenkins restarts, so a resumed build creates a new encryption key, and JFrog CLI home
+ * directories configured before the restart must be configured again.
+ **/
+public class JFrogRunState {
+    private static final Map<Run<?, ?>, JFrogRunState> states = new WeakHashMap<>();
+
+    private final Set<String> configuredHomeDirs = new HashSet<>();
+    private JFrogCliConfigEncryption configEncryption;
+    private JFrogAccessTokens accessTokens;
+
+    /**
+     * Get the state of the run, and create it if needed.
+     *
+     * @param run - The running build
+     * @return the state of the run.
+     */
+    public static JFrogRunState get(Run<?, ?> run) {
+        synchronized (states) {
+            return states.computeIfAbsent(run, key -> new JFrogRunState());
+        }
+    }
+
+    /**
+     * Get the key that encrypts the JFrog CLI config of the run, and create it if needed.
+     * Only one key is created for each run.
+     *
+     * @param env - Job's environment variables
+     * @return the JFrog CLI config encryption of the run.
+     */
+    public synchronized JFrogCliConfigEncryption getConfigEncryption(EnvVars env) {
+        if (configEncryption == null) {
+            configEncryption = new JFrogCliConfigEncryption(env);
+        }
+        return configEncryption;
+    }
+
+    /**
+     * @return the short-lived access tokens of the run.
+     */
+    public synchronized JFrogAccessTokens getAccessTokens() {
+        if (accessTokens == null) {
+            accessTokens = new JFrogAccessTokens();
+        }
+        return accessTokens;
+    }
+
+    /**
+     * Return true if the JFrog CLI home directory was set up by the run since Jenkins started.
+     * Otherwise, the servers in the directory may be encrypted with a key that was lost in a restart.
+     *
+     * @param jfrogHomeDir - The JFrog CLI home directory
+     * @return true if the home directory was configured with the current encryption key of the run.
+     */
+    public synchronized boolean isConfigured(FilePath jfrogHomeDir) {
+        return configuredHomeDirs.contains(getHomeDirKey(jfrogHomeDir));
+    }
+
+    /**
+     * Mark the JFrog CLI home directory as configured with the current encryption key of the run.
+     *
+     * @param jfrogHomeDir - The JFrog CLI home directory
+     */
+    public synchronized void setConfigured(FilePath jfrogHomeDir) {
+        configuredHomeDirs.add(getHomeDirKey(jfrogHomeDir));
+    }
+
+    private static String getHomeDirKey(FilePath jfrogHomeDir) {
+        // Different nodes may have the same path
+        Computer computer = jfrogHomeDir.toComputer();
+        return (computer == null ? "" : computer.getName()) + "|" + jfrogHomeDir.getRemote();
+    }
+}
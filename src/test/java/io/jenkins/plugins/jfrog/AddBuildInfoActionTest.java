@@ -1,6 +1,7 @@
 package io.jenkins.plugins.jfrog;
 
 import hudson.model.Action;
+import io.jenkins.plugins.jfrog.actions.BuildInfoBuildBadgeAction;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 import org.jfrog.build.api.util.NullLog;
 import org.junit.Rule;
@@ -16,9 +17,8 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,6 +35,15 @@ public class AddBuildInfoActionTest {
             "{\n" +
             "  \"buildInfoUiUrl\": \"http://127.0.0.1:8081/ui/builds/test/1/1682417678409/published?buildRepo=artifactory-build-info\"\n" +
             "}");
+    private static final String RT_BP_NESTED_OUTPUT = ("13:14:37 [\uD83D\uDD35Info] Collecting {env} variables...\n" +
+            "{\n" +
+            "  \"status\": \"success\",\n" +
+            "  \"details\": { \"message\": \"build {1} \\\"published\\\"\" }\n" +
+            "}\n" +
+            "{\n" +
+            "  \"buildInfoUiUrl\": \"http://127.0.0.1:8081/ui/builds/test/1/1682417678409/published?buildRepo=artifactory-build-info\",\n" +
+            "  \"summary\": { \"totals\": { \"success\": 1, \"failure\": 0 } }\n" +
+            "}");
     private static final String EXPECTED_BUILD_INFO_URL = "http://127.0.0.1:8081/ui/builds/test/1/1682417678409/published?buildRepo=artifactory-build-info";
 
     @Rule
@@ -49,13 +58,14 @@ public class AddBuildInfoActionTest {
     private static Stream<Arguments> positiveDataProvider() {
         return Stream.of(
                 Arguments.of("rt bp", RT_BP_OUTPUT),
-                Arguments.of("rt build-publish", RT_BP_OUTPUT)
+                Arguments.of("rt build-publish", RT_BP_OUTPUT),
+                Arguments.of("rt bp", RT_BP_NESTED_OUTPUT)
         );
     }
 
     @ParameterizedTest
     @MethodSource("positiveDataProvider")
-    public void addBuildInfoActionPositiveTest(String command, String output) throws IOException {
+    public void addBuildInfoActionPositiveTest(String command, String output) {
         doNothing().when(run).addAction(valueCapture.capture());
         runCliCommand(command, output);
 
@@ -64,6 +74,19 @@ public class AddBuildInfoActionTest {
         assertEquals(valueCapture.getValue().getUrlName(), EXPECTED_BUILD_INFO_URL);
     }
 
+    @ParameterizedTest
+    @MethodSource("positiveDataProvider")
+    public void addBuildInfoUrlToExistingActionTest(String command, String output) {
+        BuildInfoBuildBadgeAction existingAction = new BuildInfoBuildBadgeAction("http://127.0.0.1:8081/ui/builds/test/0");
+        when(run.getAction(BuildInfoBuildBadgeAction.class)).thenReturn(existingAction);
+        runCliCommand(command, output);
+
+        // A single action holds all build-info URLs of the run
+        Mockito.verify(run, never()).addAction(isA(Action.class));
+        assertEquals(List.of("http://127.0.0.1:8081/ui/builds/test/0", EXPECTED_BUILD_INFO_URL), existingAction.getUrls());
+        assertEquals(EXPECTED_BUILD_INFO_URL, existingAction.getUrlName());
+    }
+
     private static Stream<Arguments> negativeDataProvider() {
         return Stream.of(
                 Arguments.of("rt u a b", RT_BP_OUTPUT),
@@ -75,16 +98,19 @@ public class AddBuildInfoActionTest {
 
     @ParameterizedTest
     @MethodSource("negativeDataProvider")
-    public void addBuildInfoActionNegativeTest(String command, String output) throws IOException {
+    public void addBuildInfoActionNegativeTest(String command, String output) {
         runCliCommand(command, output);
         Mockito.verify(run, never()).addAction(isA(Action.class));
     }
 
-    private void runCliCommand(String command, String output) throws IOException {
-        try (ByteArrayOutputStream taskOutputStream = new ByteArrayOutputStream()) {
-            taskOutputStream.writeBytes(output.getBytes(StandardCharsets.UTF_8));
-            JfStep jfStep = new JfStep(command);
-            JfStep.addBuildInfoActionIfNeeded(jfStep.getArgs(), new NullLog(), run, taskOutputStream);
+    private void runCliCommand(String command, String output) {
+        JsonObjectDetector jsonObjectDetector = new JsonObjectDetector();
+        // Write the output in small chunks, as it arrives from the agent
+        byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 7) {
+            jsonObjectDetector.write(bytes, i, Math.min(7, bytes.length - i));
         }
+        JfStep jfStep = new JfStep(command);
+        JfStep.addBuildInfoActionIfNeeded(jfStep.getArgs(), new NullLog(), run, jsonObjectDetector.getObjects());
     }
 }
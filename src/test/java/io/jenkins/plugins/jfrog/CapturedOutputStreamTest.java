@@ -0,0 +1,64 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CapturedOutputStreamTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void captureInMemoryTest() throws Exception {
+        try (CapturedOutputStream outputStream = new CapturedOutputStream(null, 4)) {
+            outputStream.write("output larger than the limit".getBytes(StandardCharsets.UTF_8));
+            assertFalse(outputStream.isSpilled());
+            assertEquals("output larger than the limit", outputStream.toString());
+        }
+    }
+
+    @Test
+    public void captureSmallOutputToFileTest() throws Exception {
+        File stdoutFile = new File(tempDir, "stdout.txt");
+        CapturedOutputStream outputStream = new CapturedOutputStream(new FilePath(stdoutFile), 1024);
+        outputStream.write("small output".getBytes(StandardCharsets.UTF_8));
+        assertFalse(outputStream.isSpilled());
+        assertFalse(stdoutFile.exists());
+        assertEquals("small output", outputStream.toString());
+
+        outputStream.close();
+        assertEquals("small output", Files.readString(stdoutFile.toPath()));
+    }
+
+    @Test
+    public void spillToFileTest() throws Exception {
+        File stdoutFile = new File(tempDir, "stdout.txt");
+        CapturedOutputStream outputStream = new CapturedOutputStream(new FilePath(stdoutFile), 8);
+        outputStream.write("1234".getBytes(StandardCharsets.UTF_8));
+        outputStream.write("56789".getBytes(StandardCharsets.UTF_8));
+        assertTrue(outputStream.isSpilled());
+        assertEquals("", outputStream.toString());
+        outputStream.write('0');
+
+        outputStream.close();
+        assertEquals("1234567890", Files.readString(stdoutFile.toPath()));
+    }
+
+    @Test
+    public void closeTwiceTest() throws Exception {
+        File stdoutFile = new File(tempDir, "stdout.txt");
+        CapturedOutputStream outputStream = new CapturedOutputStream(new FilePath(stdoutFile), 1024);
+        outputStream.write("output".getBytes(StandardCharsets.UTF_8));
+        outputStream.close();
+        // A stopped step and its completion may both close the output
+        outputStream.close();
+        assertEquals("output", Files.readString(stdoutFile.toPath()));
+    }
+}
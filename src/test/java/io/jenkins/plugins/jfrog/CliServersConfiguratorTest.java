@@ -0,0 +1,151 @@
+package io.jenkins.plugins.jfrog;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.models.JFrogCliConfigModel;
+import org.jenkinsci.plugins.plaincredentials.impl.StringCredentialsImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CliServersConfiguratorTest {
+    private static final String ENCRYPTION_KEY = "0123456789abcdef0123456789abcdef";
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+    private List<JFrogPlatformInstance> jfrogInstances;
+
+    @Before
+    public void setUp() throws Exception {
+        List<com.cloudbees.plugins.credentials.Credentials> credentials = SystemCredentialsProvider.getInstance().getCredentials();
+        credentials.add(new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "basic", null, "andor", "RogueOne"));
+        credentials.add(new StringCredentialsImpl(CredentialsScope.GLOBAL, "token", null, Secret.fromString("access-token")));
+        jfrogInstances = List.of(
+                new JFrogPlatformInstance("acme", "https://acme.jfrog.io", new CredentialsConfig("basic", null), "", "", ""),
+                new JFrogPlatformInstance("acme-2", "https://acme2.jfrog.io", new CredentialsConfig("token", null), "https://rt.acme2.jfrog.io/artifactory/", "", ""));
+    }
+
+    @Test
+    public void createConfigTest() throws Exception {
+        JFrogCliConfigModel config = CliServersConfigurator.createConfig(jfrogInstances, "acme", null, null, null);
+        assertFalse(config.isEnc());
+        assertEquals(JFrogCliConfigModel.CONFIG_VERSION, config.getVersion());
+        assertEquals(2, config.getServers().size());
+
+        JFrogCliConfigModel.Server server = config.getServers().get(0);
+        assertEquals("acme", server.getServerId());
+        assertTrue(server.isDefaultServer());
+        assertEquals("andor", server.getUser());
+        assertEquals("RogueOne", server.getPassword());
+        assertNull(server.getAccessToken());
+        assertEquals("https://acme.jfrog.io/", server.getUrl());
+        assertEquals("https://acme.jfrog.io/artifactory/", server.getArtifactoryUrl());
+        assertEquals("https://acme.jfrog.io/distribution/", server.getDistributionUrl());
+        assertEquals("https://acme.jfrog.io/xray/", server.getXrayUrl());
+
+        server = config.getServers().get(1);
+        assertEquals("acme-2", server.getServerId());
+        assertFalse(server.isDefaultServer());
+        assertEquals("access-token", server.getAccessToken());
+        assertNull(server.getUser());
+        assertNull(server.getPassword());
+        assertEquals("https://rt.acme2.jfrog.io/artifactory/", server.getArtifactoryUrl());
+    }
+
+    @Test
+    public void createEncryptedConfigTest() throws Exception {
+        JFrogCliConfigModel config = CliServersConfigurator.createConfig(jfrogInstances, "acme", null, ENCRYPTION_KEY, null);
+        assertTrue(config.isEnc());
+
+        JFrogCliConfigModel.Server server = config.getServers().get(0);
+        assertEquals("andor", server.getUser());
+        assertNotEquals("RogueOne", server.getPassword());
+        assertEquals("RogueOne", decrypt(server.getPassword()));
+
+        server = config.getServers().get(1);
+        assertNotEquals("access-token", server.getAccessToken());
+        assertEquals("access-token", decrypt(server.getAccessToken()));
+    }
+
+    @Test
+    public void getRequiredServersTest() {
+        List<JFrogPlatformInstance> instances = List.of(
+                new JFrogPlatformInstance("acme", "https://acme.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-2", "https://acme2.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-3", "https://acme3.jfrog.io", null, "", "", ""));
+
+        // The default server is always required
+        assertServerIds(new JfStep("rt ping").getArgs(), instances, "acme");
+        assertServerIds(new JfStep("rt ping --server-id=acme-3").getArgs(), instances, "acme", "acme-3");
+        assertServerIds(new JfStep("rt ping --server-id acme-2").getArgs(), instances, "acme", "acme-2");
+        assertServerIds(new JfStep("rt transfer-files acme-3 acme-2").getArgs(), instances, "acme", "acme-2", "acme-3");
+
+        // Config commands may use any server
+        assertServerIds(new JfStep("c use acme-2").getArgs(), instances, "acme", "acme-2", "acme-3");
+        assertServerIds(new JfStep("config show").getArgs(), instances, "acme", "acme-2", "acme-3");
+    }
+
+    @Test
+    public void getRequiredServersOptionsTest() {
+        List<JFrogPlatformInstance> instances = List.of(
+                new JFrogPlatformInstance("acme", "https://acme.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-2", "https://acme2.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-3", "https://acme3.jfrog.io", null, "", "", ""));
+
+        // All the '--server-id' options are matched
+        assertServerIds(new JfStep("docker push image:1 --server-id-deploy=acme-3").getArgs(), instances, "acme", "acme-3");
+        assertServerIds(new JfStep("rt download a/ --server-id-resolve=acme-2").getArgs(), instances, "acme", "acme-2");
+        assertServerIds(new JfStep("rt ping --server-id-unknown=acme-2 --server-id=acme-3").getArgs(), instances, "acme", "acme-2", "acme-3");
+    }
+
+    @Test
+    public void getRequiredServersBuildToolsTest() {
+        List<JFrogPlatformInstance> instances = List.of(
+                new JFrogPlatformInstance("acme", "https://acme.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-2", "https://acme2.jfrog.io", null, "", "", ""),
+                new JFrogPlatformInstance("acme-3", "https://acme3.jfrog.io", null, "", "", ""));
+
+        // The '*-config' commands store the server IDs in '.jfrog/projects'
+        assertServerIds(new JfStep("mvn-config --server-id-resolve=acme-2").getArgs(), instances, "acme", "acme-2", "acme-3");
+        assertServerIds(new JfStep("npmc --server-id-resolve=acme-2").getArgs(), instances, "acme", "acme-2", "acme-3");
+        assertServerIds(new JfStep("rt gradle-config").getArgs(), instances, "acme", "acme-2", "acme-3");
+
+        // The build tool commands read them
+        assertServerIds(new JfStep("mvn clean install").getArgs(), instances, "acme", "acme-2", "acme-3");
+        assertServerIds(new JfStep("npm ci").getArgs(), instances, "acme", "acme-2", "acme-3");
+        assertServerIds(new JfStep("rt mvn clean install").getArgs(), instances, "acme", "acme-2", "acme-3");
+
+        // Other commands are not affected
+        assertServerIds(new JfStep("rt upload mvn/ repo/").getArgs(), instances, "acme");
+    }
+
+    private static void assertServerIds(String[] args, List<JFrogPlatformInstance> instances, String... expectedServerIds) {
+        String[] actual = CliServersConfigurator.getRequiredServers(args, instances).stream()
+                .map(JFrogPlatformInstance::getId)
+                .toArray(String[]::new);
+        assertArrayEquals(expectedServerIds, actual);
+    }
+
+    private static String decrypt(String encrypted) throws Exception {
+        byte[] sealed = Base64.getDecoder().decode(encrypted);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(ENCRYPTION_KEY.getBytes(StandardCharsets.UTF_8), "AES"),
+                new GCMParameterSpec(128, Arrays.copyOfRange(sealed, 0, 12)));
+        return new String(cipher.doFinal(Arrays.copyOfRange(sealed, 12, sealed.length)), StandardCharsets.UTF_8);
+    }
+}
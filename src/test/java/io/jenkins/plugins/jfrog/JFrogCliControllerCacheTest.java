@@ -0,0 +1,149 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.jfrog.callables.JFrogCliStore;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.commons.lang3.StringUtils.countMatches;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class JFrogCliControllerCacheTest {
+    private static final byte[] BINARY = "jf binary".getBytes(StandardCharsets.UTF_8);
+    private static final String OS_DETAILS = "linux-amd64";
+    private static final String CLI_URL_SUFFIX = "/jfrog-cli/v2-jf/[RELEASE]/jfrog-cli-linux-amd64/jf";
+    private static final String ARTIFACTORY_URL = "https://acme.jfrog.io/artifactory";
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private ArtifactoryManager manager;
+    private String sha256;
+
+    @Before
+    public void setUp() throws Exception {
+        JFrogCliControllerCache.clear();
+        manager = mock(ArtifactoryManager.class);
+        doAnswer(invocation -> {
+            downloads.incrementAndGet();
+            Files.write(Paths.get((String) invocation.getArgument(1)), BINARY);
+            return null;
+        }).when(manager).downloadToFile(anyString(), anyString());
+        Path binary = tempFolder.newFile().toPath();
+        Files.write(binary, BINARY);
+        sha256 = JFrogCliStore.sha256(binary);
+    }
+
+    @Test
+    public void installTest() throws Exception {
+        StringBuilder logs = new StringBuilder();
+        install("jf-a", sha256, logs);
+        install("jf-a", sha256, logs);
+        assertEquals(1, downloads.get());
+        assertEquals(1, countMatches(logs, "Transfer 'jf'"));
+        assertArrayEquals(BINARY, Files.readAllBytes(tempFolder.getRoot().toPath().resolve("tools/jf-a/jf")));
+    }
+
+    @Test
+    public void unknownSha256Test() throws Exception {
+        // Artifactory doesn't return the sha256, so the sha256 computed in the first download is used
+        StringBuilder logs = new StringBuilder();
+        install("jf-a", "", logs);
+        install("jf-a", "", logs);
+        install("jf-b", "", logs);
+        assertEquals(1, downloads.get());
+        assertEquals(1, countMatches(logs, "Transfer 'jf'"));
+        assertArrayEquals(BINARY, Files.readAllBytes(tempFolder.getRoot().toPath().resolve("tools/jf-b/jf")));
+    }
+
+    @Test
+    public void concurrentInstallTest() throws Exception {
+        // Executors of the same agent install to different tool directories, which share the agent's store
+        int installations = 4;
+        ExecutorService executorService = Executors.newFixedThreadPool(installations);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < installations; i++) {
+                String toolDir = "jf-" + i;
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    StringBuilder logs = new StringBuilder();
+                    install(toolDir, sha256, logs);
+                    return logs.toString();
+                }));
+            }
+            start.countDown();
+            StringBuilder logs = new StringBuilder();
+            for (Future<String> future : futures) {
+                logs.append(future.get(1, TimeUnit.MINUTES));
+            }
+            assertEquals(1, downloads.get());
+            assertEquals(1, countMatches(logs, "Transfer 'jf'"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void collectGarbageTest() throws Exception {
+        Path cacheDir = tempFolder.newFolder("cache").toPath();
+        long now = System.currentTimeMillis();
+        Path oldest = createCachedBinary(cacheDir, "1111", now - TimeUnit.HOURS.toMillis(3));
+        Path old = createCachedBinary(cacheDir, "2222", now - TimeUnit.HOURS.toMillis(2));
+        // Used recently, so it may be being transferred
+        Path recent = createCachedBinary(cacheDir, "3333", now);
+
+        JFrogCliControllerCache.collectGarbage(cacheDir, 2);
+        assertFalse(Files.exists(oldest));
+        assertTrue(Files.exists(old));
+        assertTrue(Files.exists(recent));
+    }
+
+    private void install(String toolDir, String sha256, StringBuilder logs) throws Exception {
+        FilePath toolLocation = new FilePath(tempFolder.getRoot()).child("tools").child(toolDir);
+        toolLocation.mkdirs();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TaskListener log = new StreamTaskListener(output, StandardCharsets.UTF_8);
+        JFrogCliControllerCache.install(toolLocation, log, "", manager, ARTIFACTORY_URL, OS_DETAILS, CLI_URL_SUFFIX, sha256, "jf");
+        logs.append(output.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Path createCachedBinary(Path cacheDir, String sha256, long lastUsed) throws Exception {
+        Path shaDir = cacheDir.resolve(OS_DETAILS).resolve(sha256);
+        Files.createDirectories(shaDir);
+        Path binary = shaDir.resolve("jf");
+        Files.write(binary, new byte[1024 * 1024]);
+        Files.setLastModifiedTime(binary, FileTime.fromMillis(lastUsed));
+        Files.setAttribute(binary, "lastAccessTime", FileTime.fromMillis(lastUsed));
+        Files.setLastModifiedTime(shaDir, FileTime.fromMillis(lastUsed));
+        return binary;
+    }
+}
@@ -0,0 +1,62 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+import hudson.Functions;
+import hudson.slaves.DumbSlave;
+import hudson.tools.CommandInstaller;
+import hudson.tools.InstallSourceProperty;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+public class JFrogCliPreinstallerTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private JfrogInstallation.DescriptorImpl descriptor;
+    private JfrogInstallation installation;
+
+    @Before
+    public void setUp() {
+        descriptor = jenkinsRule.jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class);
+        InstallSourceProperty installSource = new InstallSourceProperty(Collections.singletonList(new CommandInstaller(null, "touch jf", ".")));
+        installation = new JfrogInstallation("jfrog-cli", null, Collections.singletonList(installSource));
+        descriptor.setInstallations(installation);
+    }
+
+    @Test
+    public void getInstallationsToPreinstallTest() throws Exception {
+        DumbSlave agent = jenkinsRule.createSlave();
+
+        // Disabled by default
+        assertEquals(0, JFrogCliPreinstaller.getInstallationsToPreinstall(agent.toComputer()).length);
+
+        descriptor.setPreinstallOnConnect(true);
+        assertArrayEquals(new JfrogInstallation[]{installation}, JFrogCliPreinstaller.getInstallationsToPreinstall(agent.toComputer()));
+
+        // Builds don't run on the built-in node without executors
+        jenkinsRule.jenkins.setNumExecutors(0);
+        assertEquals(0, JFrogCliPreinstaller.getInstallationsToPreinstall(jenkinsRule.jenkins.toComputer()).length);
+    }
+
+    @Test
+    public void preinstallOnConnectTest() throws Exception {
+        assumeFalse(Functions.isWindows());
+        descriptor.setPreinstallOnConnect(true);
+        DumbSlave agent = jenkinsRule.createOnlineSlave();
+        FilePath binary = agent.getRootPath().child("tools").child(JfrogInstallation.class.getName()).child("jfrog-cli").child("jf");
+        for (int i = 0; i < 600 && !binary.exists(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(binary.exists());
+    }
+}
@@ -0,0 +1,139 @@
+package io.jenkins.plugins.jfrog;
+
+import com.sun.net.httpserver.HttpServer;
+import hudson.FilePath;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.jfrog.callables.JFrogCliDownloader;
+import io.jenkins.plugins.jfrog.callables.JFrogCliStore;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jfrog.build.client.DownloadResponse.SHA256_HEADER_NAME;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JFrogCliSha256CacheTest {
+    private static final String SHA256 = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final String CLI_URL_SUFFIX = "/jfrog-cli/v2-jf/[RELEASE]/jfrog-cli-linux-amd64/jf";
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private static final byte[] BINARY = "jf binary".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final AtomicInteger headRequests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String sha256 = SHA256;
+    private HttpServer server;
+    private JFrogPlatformInstance instance;
+
+    @Before
+    public void setUp() throws Exception {
+        // A stand-in for Artifactory, returning the binary sha256
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, BINARY.length);
+                exchange.getResponseBody().write(BINARY);
+                exchange.close();
+                return;
+            }
+            headRequests.incrementAndGet();
+            exchange.getResponseHeaders().add(SHA256_HEADER_NAME, sha256);
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        String artifactoryUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/artifactory";
+        instance = new JFrogPlatformInstance("", "", new CredentialsConfig("", Credentials.EMPTY_CREDENTIALS), artifactoryUrl, "", "");
+        JFrogCliSha256Cache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getSha256Test() {
+        assertEquals(SHA256, JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertEquals(SHA256, JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertEquals(1, headRequests.get());
+    }
+
+    @Test
+    public void failedRequestTest() {
+        status = 500;
+        assertNull(JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        int requests = headRequests.get();
+        assertTrue(requests > 0);
+
+        // The failure is cached, so the next installations don't wait for Artifactory
+        assertNull(JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertEquals(requests, headRequests.get());
+    }
+
+    @Test
+    public void unreachableServerTest() {
+        server.stop(0);
+        // The agents resolve the sha256 themselves
+        assertNull(JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertNull(JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertEquals(0, headRequests.get());
+    }
+
+    @Test
+    public void cacheDisabledTest() {
+        jenkinsRule.jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class).setSha256CacheTtlMinutes(0);
+        assertNull(JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        assertEquals(0, headRequests.get());
+    }
+
+    @Test
+    public void invalidateTest() {
+        assertEquals(SHA256, JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+        sha256 = SHA256.replace('0', 'f');
+        assertEquals(SHA256, JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+
+        JFrogCliSha256Cache.invalidate(instance, CLI_URL_SUFFIX);
+        assertEquals(sha256, JFrogCliSha256Cache.getSha256(instance, CLI_URL_SUFFIX));
+    }
+
+    @Test
+    public void outdatedSha256Test() throws Exception {
+        // The sha256 of the previous JFrog CLI release is cached
+        String cliUrlSuffix = JFrogCliDownloader.getCliUrlSuffix("jfrog-cli", "", OsUtils.getOsDetails(), "jf");
+        assertEquals(SHA256, JFrogCliSha256Cache.getSha256(instance, cliUrlSuffix));
+        Path binary = tempFolder.newFile().toPath();
+        Files.write(binary, BINARY);
+        sha256 = JFrogCliStore.sha256(binary);
+
+        // The downloaded binary doesn't match the cached sha256, so it is installed again with the current sha256
+        FilePath toolLocation = new FilePath(tempFolder.newFolder("tools", "jf"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryInstaller.performJfrogCliInstallation(toolLocation, new StreamTaskListener(output, StandardCharsets.UTF_8), "", instance, "jfrog-cli", "jf");
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("The cached sha256 of 'jf' is outdated"));
+        assertArrayEquals(BINARY, Files.readAllBytes(Paths.get(toolLocation.getRemote(), "jf")));
+        assertEquals(sha256, JFrogCliSha256Cache.getSha256(instance, cliUrlSuffix));
+    }
+}
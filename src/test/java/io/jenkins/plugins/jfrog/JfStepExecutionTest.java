@@ -0,0 +1,128 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.Functions;
+import hudson.model.Result;
+import hudson.slaves.DumbSlave;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsSessionRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * Run the 'jf' step with a fake JFrog CLI, which prints its arguments and sleeps if asked to.
+ **/
+public class JfStepExecutionTest {
+    private static final String FAKE_JF = "#!/bin/sh\n" +
+            "echo \"jf $*\"\n" +
+            "if [ \"$1\" = \"sleep\" ]; then\n" +
+            "  echo $$ > \"$2\"\n" +
+            "  exec sleep 60\n" +
+            "fi\n" +
+            "if [ \"$1\" = \"fail\" ]; then\n" +
+            "  exit 3\n" +
+            "fi\n";
+
+    @Rule
+    public JenkinsSessionRule sessions = new JenkinsSessionRule();
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File binDir;
+    private File pidFile;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeFalse("The fake JFrog CLI is a shell script", Functions.isWindows());
+        binDir = tempFolder.newFolder("bin");
+        Path jf = binDir.toPath().resolve("jf");
+        Files.write(jf, FAKE_JF.getBytes(StandardCharsets.UTF_8));
+        assertTrue(jf.toFile().setExecutable(true));
+        pidFile = new File(tempFolder.getRoot(), "jf.pid");
+    }
+
+    @Test
+    public void runOnAgentTest() throws Throwable {
+        sessions.then(r -> {
+            DumbSlave agent = r.createOnlineSlave();
+            WorkflowJob job = createJob(r.jenkins.createProject(WorkflowJob.class, "run-on-agent"), agent.getNodeName(),
+                    "echo \"stdout: ${jf 'rt ping'}\"\n" +
+                            "def result = jf args: 'fail', returnResult: true\n" +
+                            "echo \"exit code: ${result.exitCode}\"\n");
+            WorkflowRun run = r.buildAndAssertSuccess(job);
+            r.assertLogContains("stdout: jf rt ping", run);
+            r.assertLogContains("exit code: 3", run);
+        });
+    }
+
+    @Test
+    public void stopTest() throws Throwable {
+        sessions.then(r -> {
+            WorkflowJob job = createJob(r.jenkins.createProject(WorkflowJob.class, "stop"), "built-in",
+                    "jf 'sleep " + pidFile.getAbsolutePath() + "'\n");
+            WorkflowRun run = job.scheduleBuild2(0).waitForStart();
+            r.waitForMessage("jf sleep", run);
+            long pid = waitForPid();
+            run.doStop();
+            r.assertBuildStatus(Result.ABORTED, r.waitForCompletion(run));
+
+            // The process is killed
+            ProcessHandle process = ProcessHandle.of(pid).orElse(null);
+            if (process != null) {
+                process.onExit().get(30, TimeUnit.SECONDS);
+                assertFalse(process.isAlive());
+            }
+        });
+    }
+
+    @Test
+    public void resumeTest() throws Throwable {
+        long[] pid = new long[1];
+        sessions.then(r -> {
+            WorkflowJob job = createJob(r.jenkins.createProject(WorkflowJob.class, "resume"), "built-in",
+                    "jf 'sleep " + pidFile.getAbsolutePath() + "'\n");
+            WorkflowRun run = job.scheduleBuild2(0).waitForStart();
+            r.waitForMessage("jf sleep", run);
+            pid[0] = waitForPid();
+        });
+        sessions.then(r -> {
+            WorkflowRun run = r.jenkins.getItemByFullName("resume", WorkflowJob.class).getBuildByNumber(1);
+            r.assertBuildStatus(Result.FAILURE, r.waitForCompletion(run));
+            r.assertLogContains("Resume after a restart is not supported for the 'jf' step", run);
+            ProcessHandle.of(pid[0]).ifPresent(ProcessHandle::destroy);
+        });
+    }
+
+    private WorkflowJob createJob(WorkflowJob job, String label, String steps) {
+        job.setDefinition(new CpsFlowDefinition("node('" + label + "') {\n" +
+                "    withEnv(['JFROG_BINARY_PATH=" + binDir.getAbsolutePath() + "']) {\n" +
+                steps +
+                "    }\n" +
+                "}", true));
+        return job;
+    }
+
+    private long waitForPid() throws Exception {
+        for (int i = 0; i < 300 && pidFile.length() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(pidFile.isFile());
+        String pid = new String(Files.readAllBytes(pidFile.toPath()), StandardCharsets.UTF_8).trim();
+        assertFalse(pid.isEmpty());
+        return Long.parseLong(pid);
+    }
+}
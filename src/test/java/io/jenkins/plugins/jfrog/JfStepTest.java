@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.stream.Stream;
 
+import static io.jenkins.plugins.jfrog.JfStep.Execution.getExtractor;
 import static io.jenkins.plugins.jfrog.JfStep.Execution.getJFrogCLIPath;
 import static io.jenkins.plugins.jfrog.JfrogInstallation.JFROG_BINARY_PATH;
 
@@ -37,4 +38,19 @@ public class JfStepTest {
                 Arguments.of(new EnvVars(), true, "jf.exe")
         );
     }
+
+    @ParameterizedTest
+    @MethodSource("extractorProvider")
+    void getExtractorTest(String[] args, String expectedExtractor) {
+        Assertions.assertEquals(expectedExtractor, getExtractor(args));
+    }
+
+    private static Stream<Arguments> extractorProvider() {
+        return Stream.of(
+                Arguments.of(new String[]{"mvn", "clean", "install"}, "maven"),
+                Arguments.of(new String[]{"gradle", "build"}, "gradle"),
+                Arguments.of(new String[]{"rt", "ping"}, null),
+                Arguments.of(new String[0], null)
+        );
+    }
 }
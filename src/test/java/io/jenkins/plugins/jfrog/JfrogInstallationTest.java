@@ -0,0 +1,27 @@
+package io.jenkins.plugins.jfrog;
+
+import org.htmlunit.html.HtmlForm;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JfrogInstallationTest {
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void configureSettingsTest() throws Exception {
+        JfrogInstallation.DescriptorImpl descriptor = jenkinsRule.jenkins.getDescriptorByType(JfrogInstallation.DescriptorImpl.class);
+        HtmlForm form = jenkinsRule.createWebClient().goTo("configureTools").getFormByName("config");
+        form.getInputByName("_.sha256CacheTtlMinutes").setValue("30");
+        form.getInputByName("_.preinstallOnConnect").setChecked(true);
+        form.getInputByName("_.dependenciesDirMaxSizeMb").setValue("2048");
+        jenkinsRule.submit(form);
+        assertEquals(30, descriptor.getSha256CacheTtlMinutes());
+        assertTrue(descriptor.isPreinstallOnConnect());
+        assertEquals(2048, descriptor.getDependenciesDirMaxSizeMb());
+    }
+}
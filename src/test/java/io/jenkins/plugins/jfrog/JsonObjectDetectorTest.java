@@ -0,0 +1,74 @@
+package io.jenkins.plugins.jfrog;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonObjectDetectorTest {
+
+    @Test
+    public void detectNestedObjectTest() {
+        String object = "{\n" +
+                "  \"status\": \"success\",\n" +
+                "  \"details\": {\"message\": \"build {1} \\\"published\\\" }\"},\n" +
+                "  \"totals\": {\"success\": 2, \"failure\": 0}\n" +
+                "}";
+        assertEquals(List.of(object), detect("[Info] Uploading...\n" + object + "\n", 1));
+        assertEquals(List.of(object), detect("[Info] Uploading...\n" + object + "\n", 5));
+    }
+
+    @Test
+    public void detectSummaryTest() {
+        List<String> objects = detect("[Info] Uploading {a,b}...\n" +
+                "{\n" +
+                "  \"status\": \"success\",\n" +
+                "  \"totals\": {\"success\": 2, \"failure\": 0}\n" +
+                "}\n", Integer.MAX_VALUE);
+        assertEquals(List.of("{\n  \"status\": \"success\",\n  \"totals\": {\"success\": 2, \"failure\": 0}\n}"), objects);
+    }
+
+    @Test
+    public void ignoreArrayElementsTest() {
+        List<String> objects = detect("[\n" +
+                "  {\n    \"path\": \"my-repo/a\"\n  },\n" +
+                "  {\n    \"path\": \"my-repo/b\"\n  }\n" +
+                "]\n", Integer.MAX_VALUE);
+        assertEquals(List.of(), objects);
+    }
+
+    @Test
+    public void keepLastObjectsTest() {
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < JsonObjectDetector.MAX_OBJECTS + 2; i++) {
+            output.append("{\"i\": ").append(i).append("}\n");
+        }
+        List<String> objects = detect(output.toString(), Integer.MAX_VALUE);
+        assertEquals(JsonObjectDetector.MAX_OBJECTS, objects.size());
+        assertEquals("{\"i\": " + (JsonObjectDetector.MAX_OBJECTS + 1) + "}", objects.get(objects.size() - 1));
+    }
+
+    @Test
+    public void dropLargeObjectTest() {
+        String large = "{\"a\": \"" + "x".repeat(JsonObjectDetector.MAX_OBJECT_SIZE) + "\"}\n";
+        assertEquals(List.of("{}"), detect(large + "{}", Integer.MAX_VALUE));
+    }
+
+    /**
+     * Write the output to a detector in chunks, as it arrives from the agent.
+     *
+     * @param output    - The command output
+     * @param chunkSize - The size of the chunks
+     * @return the detected objects.
+     */
+    private static List<String> detect(String output, int chunkSize) {
+        JsonObjectDetector jsonObjectDetector = new JsonObjectDetector();
+        byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            jsonObjectDetector.write(bytes, i, Math.min(chunkSize, bytes.length - i));
+        }
+        return jsonObjectDetector.getObjects();
+    }
+}
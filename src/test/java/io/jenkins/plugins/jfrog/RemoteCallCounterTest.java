@@ -0,0 +1,44 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.FilePath;
+import hudson.slaves.DumbSlave;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.*;
+
+public class RemoteCallCounterTest {
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void countAgentCallsTest() throws Exception {
+        DumbSlave agent = jenkinsRule.createOnlineSlave();
+        FilePath rootPath = agent.getRootPath();
+        assertNotNull(rootPath);
+        RemoteCallCounter counter = RemoteCallCounter.start(rootPath.getChannel());
+        try {
+            assertTrue(counter.isRemote());
+            rootPath.child("a").exists();
+            rootPath.child("b").exists();
+        } finally {
+            counter.close();
+        }
+        int calls = counter.getCalls();
+        assertTrue("Expected at least 2 calls, but got " + calls, calls >= 2);
+
+        // Calls made after the counter was closed aren't counted
+        rootPath.child("c").exists();
+        assertEquals(calls, counter.getCalls());
+    }
+
+    @Test
+    public void builtInNodeTest() throws Exception {
+        try (RemoteCallCounter counter = RemoteCallCounter.start(jenkinsRule.jenkins.getRootPath().getChannel())) {
+            assertFalse(counter.isRemote());
+            jenkinsRule.jenkins.getRootPath().child("a").exists();
+            assertEquals(0, counter.getCalls());
+        }
+    }
+}
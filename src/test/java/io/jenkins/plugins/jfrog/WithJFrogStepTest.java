@@ -0,0 +1,42 @@
+package io.jenkins.plugins.jfrog;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
+import io.jenkins.plugins.jfrog.callables.JfStepSetup;
+import io.jenkins.plugins.jfrog.state.JFrogRunState;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.*;
+
+public class WithJFrogStepTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void withJFrogTest() throws Exception {
+        WorkflowJob job = jenkinsRule.createProject(WorkflowJob.class, "with-jfrog");
+        job.setDefinition(new CpsFlowDefinition("node {\n" +
+                "    withJFrog {\n" +
+                "        echo \"prepared: ${env.JFROG_CLI_PREPARED_WORKSPACE}\"\n" +
+                "    }\n" +
+                "    echo \"after: ${env.JFROG_CLI_PREPARED_WORKSPACE}\"\n" +
+                "}", true));
+        WorkflowRun run = jenkinsRule.buildAndAssertSuccess(job);
+
+        FilePath workspace = jenkinsRule.jenkins.getWorkspaceFor(job);
+        jenkinsRule.assertLogContains("prepared: built-in|" + workspace.getRemote(), run);
+        jenkinsRule.assertLogContains("after: null", run);
+        assertTrue(JfStepSetup.getJfrogHomeDir(Utils.getWorkspaceList(), workspace, "1").exists());
+
+        // The encryption key is kept in memory only
+        assertNull(run.getAction(JFrogCliConfigEncryption.class));
+        assertNotNull(JFrogRunState.get(run).getConfigEncryption(new EnvVars()).getKey());
+    }
+}
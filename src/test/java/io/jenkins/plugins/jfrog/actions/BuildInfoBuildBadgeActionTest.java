@@ -0,0 +1,42 @@
+package io.jenkins.plugins.jfrog.actions;
+
+import hudson.model.Run;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BuildInfoBuildBadgeActionTest {
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void addBuildInfoUrlTest() throws Exception {
+        WorkflowRun run = jenkinsRule.buildAndAssertSuccess(jenkinsRule.createProject(WorkflowJob.class, "job"));
+        BuildInfoBuildBadgeAction.addBuildInfoUrl(run, "http://127.0.0.1:8081/ui/builds/test/1");
+        BuildInfoBuildBadgeAction.addBuildInfoUrl(run, "http://127.0.0.1:8081/ui/builds/test/1");
+        BuildInfoBuildBadgeAction.addBuildInfoUrl(run, "http://127.0.0.1:8081/ui/builds/other/1");
+
+        // A single action holds the URLs of all build-info
+        assertEquals(1, run.getActions(BuildInfoBuildBadgeAction.class).size());
+        BuildInfoBuildBadgeAction action = run.getAction(BuildInfoBuildBadgeAction.class);
+        assertEquals(Arrays.asList("http://127.0.0.1:8081/ui/builds/test/1", "http://127.0.0.1:8081/ui/builds/other/1"), action.getUrls());
+        assertEquals("http://127.0.0.1:8081/ui/builds/other/1", action.getUrlName());
+    }
+
+    @Test
+    public void loadOldBadgeActionsTest() {
+        String oldAction = "<io.jenkins.plugins.jfrog.actions.BuildInfoBuildBadgeAction>" +
+                "<url>http://127.0.0.1:8081/ui/builds/test/1</url>" +
+                "</io.jenkins.plugins.jfrog.actions.BuildInfoBuildBadgeAction>";
+        BuildInfoBuildBadgeAction action = (BuildInfoBuildBadgeAction) Run.XSTREAM2.fromXML(oldAction);
+        assertEquals("http://127.0.0.1:8081/ui/builds/test/1", action.getUrlName());
+        assertEquals(1, action.getUrls().size());
+        assertFalse(Run.XSTREAM2.toXML(action).contains("<url>"));
+    }
+}
@@ -0,0 +1,125 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import org.jfrog.build.api.util.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ArtifactoryManagerPoolTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private JenkinsProxyConfiguration proxyConfiguration;
+
+    @Before
+    public void setUp() {
+        ArtifactoryManagerPool.evictIdle(Long.MAX_VALUE);
+        proxyConfiguration = new JenkinsProxyConfiguration();
+    }
+
+    @Test
+    public void reuseTest() {
+        try (ArtifactoryManagerPool.Lease first = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration);
+             ArtifactoryManagerPool.Lease second = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration);
+             ArtifactoryManagerPool.Lease other = ArtifactoryManagerPool.acquire(createInstance(2), proxyConfiguration)) {
+            assertSame(first.getManager(), second.getManager());
+            assertNotSame(first.getManager(), other.getManager());
+        }
+        assertEquals(2, ArtifactoryManagerPool.size());
+
+        // Released managers are kept until they are idle
+        try (ArtifactoryManagerPool.Lease lease = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration)) {
+            assertNotNull(lease.getManager());
+        }
+        assertEquals(2, ArtifactoryManagerPool.size());
+        ArtifactoryManagerPool.evictIdle(System.currentTimeMillis() + ArtifactoryManagerPool.IDLE_TIMEOUT_MILLIS);
+        assertEquals(0, ArtifactoryManagerPool.size());
+    }
+
+    @Test
+    public void inUseNotEvictedTest() {
+        try (ArtifactoryManagerPool.Lease ignored = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration)) {
+            ArtifactoryManagerPool.evictIdle(Long.MAX_VALUE);
+            assertEquals(1, ArtifactoryManagerPool.size());
+        }
+    }
+
+    @Test
+    public void capTest() {
+        List<ArtifactoryManagerPool.Lease> leases = new ArrayList<>();
+        try {
+            for (int i = 0; i <= ArtifactoryManagerPool.MAX_MANAGERS; i++) {
+                leases.add(ArtifactoryManagerPool.acquire(createInstance(i), proxyConfiguration));
+            }
+            // All pooled managers are in use, so the last manager is not pooled
+            assertEquals(ArtifactoryManagerPool.MAX_MANAGERS, ArtifactoryManagerPool.size());
+        } finally {
+            leases.forEach(ArtifactoryManagerPool.Lease::close);
+        }
+
+        // An idle manager makes room for a new one
+        try (ArtifactoryManagerPool.Lease ignored = ArtifactoryManagerPool.acquire(createInstance(ArtifactoryManagerPool.MAX_MANAGERS + 1), proxyConfiguration)) {
+            assertEquals(ArtifactoryManagerPool.MAX_MANAGERS, ArtifactoryManagerPool.size());
+        }
+    }
+
+    @Test
+    public void keyTest() {
+        String key = ArtifactoryManagerPool.getKey(createInstance("user", "password"), proxyConfiguration);
+        assertFalse(key.contains("password"));
+        assertEquals(key, ArtifactoryManagerPool.getKey(createInstance("user", "password"), proxyConfiguration));
+        assertNotEquals(key, ArtifactoryManagerPool.getKey(createInstance("user", "password2"), proxyConfiguration));
+        // The values are delimited
+        assertNotEquals(ArtifactoryManagerPool.getKey(createInstance("user", "password"), proxyConfiguration),
+                ArtifactoryManagerPool.getKey(createInstance("userp", "assword"), proxyConfiguration));
+    }
+
+    @Test
+    public void leaseLogTest() throws Exception {
+        Log callerLog = mock(Log.class);
+        try (ArtifactoryManagerPool.Lease ignored = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration, callerLog)) {
+            ArtifactoryManagerPool.log.warn("in lease");
+
+            // Another thread using the same manager logs to its own log
+            List<String> otherThread = new CopyOnWriteArrayList<>();
+            Thread thread = new Thread(() -> {
+                Log otherLog = mock(Log.class);
+                doAnswer(invocation -> otherThread.add(invocation.getArgument(0))).when(otherLog).warn(anyString());
+                try (ArtifactoryManagerPool.Lease other = ArtifactoryManagerPool.acquire(createInstance(1), proxyConfiguration, otherLog)) {
+                    ArtifactoryManagerPool.log.warn("in other lease");
+                }
+            });
+            thread.start();
+            thread.join();
+            assertEquals(List.of("in other lease"), otherThread);
+        }
+        // Released leases don't receive messages
+        ArtifactoryManagerPool.log.warn("after lease");
+        verify(callerLog).warn("in lease");
+        verifyNoMoreInteractions(callerLog);
+    }
+
+    private static JFrogPlatformInstance createInstance(String username, String password) {
+        Credentials credentials = new Credentials(Secret.fromString(username), Secret.fromString(password), Secret.fromString(""));
+        return new JFrogPlatformInstance("", "", new CredentialsConfig("", credentials), "http://127.0.0.1:8081/artifactory", "", "");
+    }
+
+    private static JFrogPlatformInstance createInstance(int index) {
+        String artifactoryUrl = "http://127.0.0.1:" + (8081 + index) + "/artifactory";
+        return new JFrogPlatformInstance("", "", new CredentialsConfig("", Credentials.EMPTY_CREDENTIALS), artifactoryUrl, "", "");
+    }
+}
@@ -0,0 +1,115 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JFrogCliConfigWriterTest {
+    private static final String CONFIG_FILE_NAME = "jfrog-cli.conf.v5";
+
+    @TempDir
+    File jfrogHomeDir;
+
+    @Test
+    public void writeNewConfigTest() throws Exception {
+        writeConfig(CONFIG_FILE_NAME, config("acme", true));
+
+        assertTrue(Files.exists(jfrogHomeDir.toPath().resolve(CONFIG_FILE_NAME)));
+        assertEquals(Set.of("acme"), JFrogCliConfigWriter.readServerIds(jfrogHomeDir.toPath()));
+    }
+
+    @Test
+    public void mergeConfigTest() throws Exception {
+        writeConfig(CONFIG_FILE_NAME, config("acme", true));
+        // A new server must not override the existing default server
+        writeConfig(CONFIG_FILE_NAME, config("acme-2", true));
+        assertEquals(Set.of("acme", "acme-2"), JFrogCliConfigWriter.readServerIds(jfrogHomeDir.toPath()));
+
+        JsonNode servers = readConfig(CONFIG_FILE_NAME).get("servers");
+        assertEquals(2, servers.size());
+        assertTrue(servers.get(0).get("isDefault").asBoolean());
+        assertFalse(servers.get(1).get("isDefault").asBoolean());
+
+        // An existing server is replaced, and keeps its default server flag
+        writeConfig(CONFIG_FILE_NAME, config("acme", false));
+        servers = readConfig(CONFIG_FILE_NAME).get("servers");
+        assertEquals(2, servers.size());
+        assertTrue(servers.get(0).get("isDefault").asBoolean());
+    }
+
+    @Test
+    public void mergeConvertedConfigTest() throws Exception {
+        // Simulate a config that was converted by JFrog CLI to a newer version
+        Files.write(jfrogHomeDir.toPath().resolve("jfrog-cli.conf.v6"), config("acme", true).replace("\"5\"", "\"6\"").getBytes(StandardCharsets.UTF_8));
+        writeConfig(CONFIG_FILE_NAME, config("acme-2", false));
+
+        assertFalse(Files.exists(jfrogHomeDir.toPath().resolve(CONFIG_FILE_NAME)));
+        JsonNode config = readConfig("jfrog-cli.conf.v6");
+        assertEquals("6", config.get("version").asText());
+        assertEquals(2, config.get("servers").size());
+    }
+
+    @Test
+    public void concurrentWritersTest() throws Exception {
+        // Parallel steps with the same home directory, each adding its own server
+        int writers = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            Set<String> serverIds = new HashSet<>();
+            for (int i = 0; i < writers; i++) {
+                String serverId = "acme-" + i;
+                serverIds.add(serverId);
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    writeConfig(CONFIG_FILE_NAME, config(serverId, false));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            assertEquals(serverIds, JFrogCliConfigWriter.readServerIds(jfrogHomeDir.toPath()));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readServerIdsNoConfigTest() throws Exception {
+        assertTrue(JFrogCliConfigWriter.readServerIds(jfrogHomeDir.toPath()).isEmpty());
+        assertTrue(JFrogCliConfigWriter.readServerIds(jfrogHomeDir.toPath().resolve("not-exist")).isEmpty());
+    }
+
+    private void writeConfig(String configFileName, String content) throws Exception {
+        new JFrogCliConfigWriter(configFileName, content).invoke(jfrogHomeDir, null);
+    }
+
+    private JsonNode readConfig(String configFileName) throws Exception {
+        Path configFile = jfrogHomeDir.toPath().resolve(configFileName);
+        return new ObjectMapper().readTree(configFile.toFile());
+    }
+
+    private static String config(String serverId, boolean isDefault) {
+        return "{\"servers\":[{\"serverId\":\"" + serverId + "\",\"url\":\"https://" + serverId + ".jfrog.io/\",\"isDefault\":" + isDefault + "}],\"version\":\"5\"}";
+    }
+}
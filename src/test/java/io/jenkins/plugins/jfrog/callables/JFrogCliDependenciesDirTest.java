@@ -0,0 +1,31 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JFrogCliDependenciesDirTest {
+
+    @TempDir
+    Path dependenciesDir;
+
+    @Test
+    public void markLatestVersionUsedTest() throws IOException {
+        Files.createDirectories(dependenciesDir.resolve("maven/2.9.0"));
+        Files.createDirectories(dependenciesDir.resolve("maven/2.41.0"));
+        Files.createDirectories(dependenciesDir.resolve("gradle/4.33.0"));
+
+        JFrogCliDependenciesDir.markUsed(dependenciesDir, "maven");
+        assertTrue(Files.exists(dependenciesDir.resolve("maven/2.41.0").resolve(LruDirectoryCap.LAST_USED_FILE_NAME)));
+        assertFalse(Files.exists(dependenciesDir.resolve("maven/2.9.0").resolve(LruDirectoryCap.LAST_USED_FILE_NAME)));
+        assertFalse(Files.exists(dependenciesDir.resolve("gradle/4.33.0").resolve(LruDirectoryCap.LAST_USED_FILE_NAME)));
+
+        // An extractor that wasn't downloaded yet
+        JFrogCliDependenciesDir.markUsed(dependenciesDir, "missing");
+    }
+}
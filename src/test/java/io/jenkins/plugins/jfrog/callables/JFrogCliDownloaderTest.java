@@ -0,0 +1,105 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import com.sun.net.httpserver.HttpServer;
+import hudson.Util;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jfrog.build.client.DownloadResponse.SHA256_HEADER_NAME;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class JFrogCliDownloaderTest {
+    private static final byte[] BINARY = "jf binary content".getBytes(StandardCharsets.UTF_8);
+    private static final int INSTALLATIONS = 8;
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+    @Rule
+    public TemporaryFolder toolsDir = new TemporaryFolder();
+
+    private final AtomicInteger downloads = new AtomicInteger();
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        String sha256 = Util.toHexString(MessageDigest.getInstance("SHA-256").digest(BINARY));
+        // A stand-in for Artifactory, serving the JFrog CLI binary slowly
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add(SHA256_HEADER_NAME, sha256);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            downloads.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, BINARY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BINARY);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void concurrentInstallationsTest() throws Exception {
+        String artifactoryUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/artifactory";
+        JFrogPlatformInstance instance = new JFrogPlatformInstance("", "", new CredentialsConfig("", Credentials.EMPTY_CREDENTIALS), artifactoryUrl, "", "");
+        JenkinsProxyConfiguration proxyConfiguration = new JenkinsProxyConfiguration();
+
+        // Several executors install two tools at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(INSTALLATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> installations = new ArrayList<>();
+        for (int i = 0; i < INSTALLATIONS; i++) {
+            File toolLocation = new File(toolsDir.getRoot(), "jfrog-cli-" + i % 2);
+            Files.createDirectories(toolLocation.toPath());
+            installations.add(executor.submit(() -> {
+                start.await();
+                return new JFrogCliDownloader(proxyConfiguration, "2.50.0", instance, TaskListener.NULL, "jfrog-cli", "jf", null).invoke(toolLocation, null);
+            }));
+        }
+        start.countDown();
+        for (Future<Void> installation : installations) {
+            installation.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(1, downloads.get());
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(BINARY, Files.readAllBytes(toolsDir.getRoot().toPath().resolve("jfrog-cli-" + i).resolve("jf")));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import com.sun.net.httpserver.HttpServer;
+import hudson.Util;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import io.jenkins.plugins.jfrog.configuration.JenkinsProxyConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.jfrog.build.client.DownloadResponse.SHA256_HEADER_NAME;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class JFrogCliMirrorsDownloaderTest {
+    private static final byte[] BINARY = "jf binary content".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+    @Rule
+    public TemporaryFolder toolsDir = new TemporaryFolder();
+
+    private final MirrorServer slowMirror = new MirrorServer(2000, false);
+    private final MirrorServer fastMirror = new MirrorServer(0, false);
+    private final MirrorServer brokenMirror = new MirrorServer(0, true);
+
+    @Before
+    public void setUp() throws Exception {
+        JFrogCliMirrorsDownloader.clearLatencies();
+        slowMirror.start();
+        fastMirror.start();
+        brokenMirror.start();
+    }
+
+    @After
+    public void tearDown() {
+        slowMirror.server.stop(0);
+        fastMirror.server.stop(0);
+        brokenMirror.server.stop(0);
+    }
+
+    @Test
+    public void hedgeTest() throws Exception {
+        // The slow mirror is preferred, but the fast mirror responds first
+        install(slowMirror, fastMirror);
+        assertEquals(0, slowMirror.downloads.get());
+        assertEquals(1, fastMirror.downloads.get());
+
+        // The fast mirror is now ranked first
+        List<JFrogCliMirrorsDownloader.Mirror> ranked = JFrogCliMirrorsDownloader.rank(Arrays.asList(slowMirror.mirror, fastMirror.mirror));
+        assertEquals(fastMirror.mirror, ranked.get(0));
+    }
+
+    @Test
+    public void failoverTest() throws Exception {
+        install(brokenMirror, fastMirror);
+        assertEquals(1, fastMirror.downloads.get());
+
+        // The broken mirror is now ranked last
+        List<JFrogCliMirrorsDownloader.Mirror> ranked = JFrogCliMirrorsDownloader.rank(Arrays.asList(brokenMirror.mirror, fastMirror.mirror));
+        assertEquals(brokenMirror.mirror, ranked.get(1));
+    }
+
+    @Test
+    public void rankTest() {
+        JFrogCliMirrorsDownloader.Mirror unknown1 = createMirror("https://unknown1.jfrog.io");
+        JFrogCliMirrorsDownloader.Mirror slow = createMirror("https://slow.jfrog.io");
+        JFrogCliMirrorsDownloader.Mirror failed = createMirror("https://failed.jfrog.io");
+        JFrogCliMirrorsDownloader.Mirror fast = createMirror("https://fast.jfrog.io");
+        JFrogCliMirrorsDownloader.Mirror unknown2 = createMirror("https://unknown2.jfrog.io");
+        JFrogCliMirrorsDownloader.recordLatency(slow, 100);
+        JFrogCliMirrorsDownloader.recordFailure(failed);
+        JFrogCliMirrorsDownloader.recordLatency(fast, 10);
+
+        // Measured mirrors by their latency, then unknown mirrors by their configured order, then failed mirrors
+        List<JFrogCliMirrorsDownloader.Mirror> ranked = JFrogCliMirrorsDownloader.rank(Arrays.asList(unknown1, slow, failed, fast, unknown2));
+        assertEquals(Arrays.asList(fast, slow, unknown1, unknown2, failed), ranked);
+    }
+
+    private static JFrogCliMirrorsDownloader.Mirror createMirror(String platformUrl) {
+        JFrogPlatformInstance instance = new JFrogPlatformInstance("", "", new CredentialsConfig("", Credentials.EMPTY_CREDENTIALS), platformUrl + "/artifactory", "", "");
+        return new JFrogCliMirrorsDownloader.Mirror(instance, "jfrog-cli");
+    }
+
+    private void install(MirrorServer... mirrors) throws Exception {
+        List<JFrogCliMirrorsDownloader.Mirror> mirrorList = Arrays.stream(mirrors).map(mirror -> mirror.mirror).collect(Collectors.toList());
+        File toolLocation = toolsDir.newFolder("jfrog-cli");
+        new JFrogCliMirrorsDownloader(new JenkinsProxyConfiguration(), "2.50.0", mirrorList, TaskListener.NULL, "jf").invoke(toolLocation, null);
+        assertArrayEquals(BINARY, Files.readAllBytes(toolLocation.toPath().resolve("jf")));
+    }
+
+    /**
+     * A stand-in for an Artifactory mirror serving the JFrog CLI binary.
+     */
+    private static class MirrorServer {
+        private final AtomicInteger downloads = new AtomicInteger();
+        private final long delayMillis;
+        private final boolean broken;
+        private HttpServer server;
+        private JFrogCliMirrorsDownloader.Mirror mirror;
+
+        MirrorServer(long delayMillis, boolean broken) {
+            this.delayMillis = delayMillis;
+            this.broken = broken;
+        }
+
+        void start() throws Exception {
+            String sha256 = Util.toHexString(MessageDigest.getInstance("SHA-256").digest(BINARY));
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", exchange -> {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (broken) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add(SHA256_HEADER_NAME, sha256);
+                if ("HEAD".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(200, -1);
+                    exchange.close();
+                    return;
+                }
+                downloads.incrementAndGet();
+                exchange.sendResponseHeaders(200, BINARY.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(BINARY);
+                } catch (IOException ignored) {
+                    // The client closed the connection
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            String artifactoryUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/artifactory";
+            JFrogPlatformInstance instance = new JFrogPlatformInstance("", "", new CredentialsConfig("", Credentials.EMPTY_CREDENTIALS), artifactoryUrl, "", "");
+            mirror = new JFrogCliMirrorsDownloader.Mirror(instance, "jfrog-cli");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+public class JFrogCliStoreTest {
+    // A sha256 that does not match any of the test binaries
+    private static final String SHA256 = "0000000000000000000000000000000000000000000000000000000000000000";
+
+    @TempDir
+    File toolsDir;
+    private File toolLocation1;
+    private File toolLocation2;
+
+    @BeforeEach
+    public void setUp() {
+        toolLocation1 = new File(toolsDir, "jfrog-cli-1");
+        toolLocation2 = new File(toolsDir, "jfrog-cli-2");
+        assertTrue(toolLocation1.mkdirs());
+        assertTrue(toolLocation2.mkdirs());
+    }
+
+    @Test
+    public void addAndLinkTest() throws IOException {
+        JFrogCliStore store = JFrogCliStore.forTool(toolLocation1, "jf");
+        Path binary = addBinary(store, "jf-1", "");
+        assertEquals(JFrogCliStore.sha256(binary), binary.getParent().getFileName().toString());
+        assertEquals(binary, store.get(binary.getParent().getFileName().toString()));
+        assertNull(store.get(SHA256));
+
+        // Both tool directories use the same stored binary
+        store.link(binary, toolLocation1);
+        JFrogCliStore.forTool(toolLocation2, "jf").link(binary, toolLocation2);
+        assertEquals("jf-1", Files.readString(toolLocation1.toPath().resolve("jf")));
+        assertEquals("jf-1", Files.readString(toolLocation2.toPath().resolve("jf")));
+        assertTrue(Files.isExecutable(toolLocation1.toPath().resolve("jf")));
+
+        // Adding the same binary again keeps the stored binary
+        assertEquals(binary, addBinary(store, "jf-1", binary.getParent().getFileName().toString()));
+    }
+
+    @Test
+    public void checksumMismatchTest() throws IOException {
+        JFrogCliStore store = JFrogCliStore.forTool(toolLocation1, "jf");
+        assertThrows(IOException.class, () -> addBinary(store, "jf-1", SHA256));
+    }
+
+    @Test
+    public void collectGarbageTest() throws IOException {
+        assumeFalse(SystemUtils.IS_OS_WINDOWS);
+        JFrogCliStore store = JFrogCliStore.forTool(toolLocation1, "jf");
+        Path oldBinary = addBinary(store, "jf-1", "");
+        store.link(oldBinary, toolLocation1);
+        Path newBinary = addBinary(store, "jf-2", "");
+        Files.setLastModifiedTime(oldBinary, FileTime.fromMillis(0));
+        Files.setLastModifiedTime(newBinary, FileTime.fromMillis(0));
+
+        // The old binary is still linked, and the new binary isn't
+        store.collectGarbage();
+        assertTrue(Files.exists(oldBinary));
+        assertFalse(Files.exists(newBinary));
+
+        // After upgrading the tool, the old binary is no longer linked
+        newBinary = addBinary(store, "jf-2", "");
+        store.link(newBinary, toolLocation1);
+        Files.setLastModifiedTime(newBinary, FileTime.fromMillis(0));
+        store.collectGarbage();
+        assertFalse(Files.exists(oldBinary));
+        assertTrue(Files.exists(newBinary));
+    }
+
+    @Test
+    public void collectGarbageWithoutLinkCountTest() throws IOException {
+        // A file system that doesn't report the number of links, such as on Windows
+        JFrogCliStore store = new JFrogCliStore(toolsDir.toPath().resolve(JFrogCliStore.STORE_DIR_NAME).resolve("test"), "jf") {
+            @Override
+            Integer getLinkCount(Path binary) {
+                return null;
+            }
+        };
+        Path usedBinary = addBinary(store, "jf-1", "");
+        Path unusedBinary = addBinary(store, "jf-2", "");
+        Path tempFile = store.createTempFile();
+        long expired = System.currentTimeMillis() - JFrogCliStore.UNUSED_BINARY_MAX_AGE_MILLIS - 1000;
+        Files.setLastModifiedTime(usedBinary, FileTime.fromMillis(expired));
+        Files.setLastModifiedTime(unusedBinary, FileTime.fromMillis(expired));
+        Files.setLastModifiedTime(tempFile, FileTime.fromMillis(0));
+
+        // Linking the binary marks it as used
+        store.link(usedBinary, toolLocation1);
+        store.collectGarbage();
+        assertTrue(Files.exists(usedBinary));
+        assertFalse(Files.exists(unusedBinary));
+        assertFalse(Files.exists(tempFile));
+        assertEquals("jf-1", Files.readString(toolLocation1.toPath().resolve("jf")));
+    }
+
+    private static Path addBinary(JFrogCliStore store, String content, String expectedSha256) throws IOException {
+        Path tempFile = store.createTempFile();
+        Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+        return store.add(tempFile, expectedSha256);
+    }
+}
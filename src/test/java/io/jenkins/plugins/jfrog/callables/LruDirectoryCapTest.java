@@ -0,0 +1,81 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LruDirectoryCapTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path dependenciesDir;
+
+    @Test
+    public void evictLeastRecentlyUsedTest() throws Exception {
+        long now = System.currentTimeMillis();
+        createExtractor("maven/2.39.0", now - 3 * HOUR);
+        createExtractor("maven/2.41.0", now - 2 * HOUR);
+        // Used recently, so it may be in use
+        createExtractor("gradle/4.33.0", now);
+
+        String report = new LruDirectoryCap("dependencies", 4 * 1024, 0, HOUR).apply(dependenciesDir);
+        assertFalse(Files.exists(dependenciesDir.resolve("maven/2.39.0")));
+        assertTrue(Files.exists(dependenciesDir.resolve("maven/2.41.0")));
+        assertTrue(Files.exists(dependenciesDir.resolve("gradle/4.33.0")));
+        assertTrue(report.contains("Deleted the least recently used: maven/2.39.0"), report);
+        assertTrue(report.contains("gradle/4.33.0"), report);
+    }
+
+    @Test
+    public void keepRecentlyUsedTest() throws Exception {
+        long now = System.currentTimeMillis();
+        createExtractor("maven/2.41.0", now);
+        createExtractor("gradle/4.33.0", now);
+
+        new LruDirectoryCap("dependencies", 1024, 0, HOUR).apply(dependenciesDir);
+        assertTrue(Files.exists(dependenciesDir.resolve("maven/2.41.0")));
+        assertTrue(Files.exists(dependenciesDir.resolve("gradle/4.33.0")));
+    }
+
+    @Test
+    public void markUsedTest() throws Exception {
+        long now = System.currentTimeMillis();
+        createExtractor("maven/2.39.0", now - 3 * HOUR);
+        createExtractor("maven/2.41.0", now - 2 * HOUR);
+        // Access times are unreliable, so a recent access doesn't keep the extractor
+        Files.setAttribute(dependenciesDir.resolve("maven/2.39.0/extractor-uber.jar"), "lastAccessTime", FileTime.fromMillis(now));
+        LruDirectoryCap.markUsed(dependenciesDir.resolve("maven/2.41.0"));
+
+        new LruDirectoryCap("dependencies", 2 * 1024, 0, HOUR).apply(dependenciesDir);
+        assertFalse(Files.exists(dependenciesDir.resolve("maven/2.39.0")));
+        assertTrue(Files.exists(dependenciesDir.resolve("maven/2.41.0")));
+    }
+
+    @Test
+    public void checkIntervalTest() throws Exception {
+        createExtractor("maven/2.41.0", System.currentTimeMillis());
+        assertNotNull(new LruDirectoryCap("dependencies", 0, HOUR, HOUR).apply(dependenciesDir));
+        // Checked recently
+        assertNull(new LruDirectoryCap("dependencies", 0, HOUR, HOUR).apply(dependenciesDir));
+    }
+
+    @Test
+    public void missingDirTest() throws Exception {
+        assertNull(new LruDirectoryCap("dependencies", 0, 0, HOUR).apply(dependenciesDir.resolve("missing")));
+    }
+
+    private void createExtractor(String name, long lastUsed) throws IOException {
+        Path versionDir = Files.createDirectories(dependenciesDir.resolve(name));
+        Path jar = Files.write(versionDir.resolve("extractor-uber.jar"), new byte[2 * 1024]);
+        FileTime time = FileTime.fromMillis(lastUsed);
+        Files.setLastModifiedTime(jar, time);
+        Files.setLastModifiedTime(versionDir, time);
+    }
+}
@@ -0,0 +1,181 @@
+package io.jenkins.plugins.jfrog.callables;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jfrog.build.client.ProxyConfiguration;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RangedDownloaderTest {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int CHUNK_SIZE = 1024;
+    private static final byte[] CONTENT = new byte[10 * CHUNK_SIZE + 100];
+
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicBoolean failChunks = new AtomicBoolean();
+    private final AtomicBoolean ignoreRanges = new AtomicBoolean();
+    private final AtomicBoolean redirect = new AtomicBoolean();
+    private final List<String> storageAuthorizations = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private HttpServer storage;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        new Random(0).nextBytes(CONTENT);
+        // Simulates a storage, such as S3, that Artifactory redirects to with a signed URL
+        storage = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        storage.createContext("/", exchange -> {
+            storageAuthorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+            handle(exchange);
+        });
+        storage.setExecutor(Executors.newCachedThreadPool());
+        storage.start();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            if (redirect.get()) {
+                exchange.getResponseHeaders().add("Location", "http://127.0.0.1:" + storage.getAddress().getPort() + "/jf?signature=abc");
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+                return;
+            }
+            handle(exchange);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Matcher matcher = RANGE_PATTERN.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Range")));
+        if (ignoreRanges.get() || !matcher.matches()) {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(CONTENT);
+            }
+            return;
+        }
+        int start = Integer.parseInt(matcher.group(1));
+        int end = Integer.parseInt(matcher.group(2));
+        rangeRequests.incrementAndGet();
+        // Fail the odd chunks, to simulate an interrupted download
+        if (failChunks.get() && (start / CHUNK_SIZE) % 2 == 1) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + CONTENT.length);
+        exchange.sendResponseHeaders(206, end + 1 - start);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(CONTENT, start, end + 1 - start);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        storage.stop(0);
+    }
+
+    @Test
+    public void downloadTest() throws Exception {
+        Path partFile = tempDir.resolve("jf.tmp");
+        assertTrue(createDownloader(partFile).download());
+        assertArrayEquals(CONTENT, Files.readAllBytes(partFile));
+        assertEquals(11, rangeRequests.get());
+    }
+
+    @Test
+    public void resumeTest() throws Exception {
+        Path partFile = tempDir.resolve("jf.tmp");
+        failChunks.set(true);
+        assertThrows(Exception.class, () -> createDownloader(partFile).download());
+        assertTrue(Files.exists(partFile.resolveSibling("jf.tmp.chunks")));
+
+        // Only the failed chunks should be downloaded again
+        failChunks.set(false);
+        rangeRequests.set(0);
+        assertTrue(createDownloader(partFile).download());
+        assertArrayEquals(CONTENT, Files.readAllBytes(partFile));
+        assertEquals(5, rangeRequests.get());
+    }
+
+    @Test
+    public void rangesIgnoredTest() throws Exception {
+        Path partFile = tempDir.resolve("jf.tmp");
+        ignoreRanges.set(true);
+        RangedDownloader downloader = createDownloader(partFile);
+        assertFalse(downloader.download());
+        downloader.delete();
+        assertFalse(Files.exists(partFile));
+        assertFalse(Files.exists(partFile.resolveSibling("jf.tmp.chunks")));
+    }
+
+    @Test
+    public void redirectTest() throws Exception {
+        Path partFile = tempDir.resolve("jf.tmp");
+        redirect.set(true);
+        assertTrue(createDownloader(partFile).download());
+        assertArrayEquals(CONTENT, Files.readAllBytes(partFile));
+        assertEquals(11, rangeRequests.get());
+        // The credentials are sent only to Artifactory
+        assertEquals(11, storageAuthorizations.size());
+        assertTrue(storageAuthorizations.stream().allMatch("null"::equals));
+    }
+
+    @Test
+    public void proxyTest() throws Exception {
+        Path partFile = tempDir.resolve("jf.tmp");
+        ProxyConfiguration proxy = new ProxyConfiguration();
+        proxy.host = "127.0.0.1";
+        proxy.port = server.getAddress().getPort();
+        // The server isn't reachable without the proxy
+        String url = "http://artifactory.invalid/jfrog-cli/v2-jf/[RELEASE]/jfrog-cli-linux-amd64/jf";
+        assertTrue(new RangedDownloader(url, "user", "password", "", proxy, partFile, CONTENT.length, CHUNK_SIZE).download());
+        assertArrayEquals(CONTENT, Files.readAllBytes(partFile));
+        assertEquals(11, rangeRequests.get());
+    }
+
+    @Test
+    public void getRangedSizeTest() {
+        long size = RangedDownloader.CHUNK_SIZE + 1L;
+        assertEquals(size, RangedDownloader.getRangedSize(headers("Accept-Ranges", "bytes", "Content-Length", String.valueOf(size))));
+        assertEquals(-1, RangedDownloader.getRangedSize(headers("Accept-Ranges", "none", "Content-Length", String.valueOf(size))));
+        assertEquals(-1, RangedDownloader.getRangedSize(headers("Content-Length", String.valueOf(size))));
+        assertEquals(-1, RangedDownloader.getRangedSize(headers("Accept-Ranges", "bytes", "Content-Length", "10")));
+    }
+
+    private RangedDownloader createDownloader(Path partFile) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/jfrog-cli/v2-jf/[RELEASE]/jfrog-cli-linux-amd64/jf";
+        return new RangedDownloader(url, "user", "password", "", null, partFile, CONTENT.length, CHUNK_SIZE);
+    }
+
+    private static Header[] headers(String... namesAndValues) {
+        Header[] headers = new Header[namesAndValues.length / 2];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = new BasicHeader(namesAndValues[2 * i], namesAndValues[2 * i + 1]);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,69 @@
+package io.jenkins.plugins.jfrog.configuration;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JFrogPlatformInstancesTest {
+
+    @Test
+    public void testGet() {
+        JFrogPlatformInstance acme = createInstance("acme", "https://acme.jfrog.io");
+        JFrogPlatformInstance other = createInstance("other", "https://other.jfrog.io");
+        JFrogPlatformInstances instances = new JFrogPlatformInstances(Arrays.asList(acme, other));
+        assertSame(acme, instances.get("acme"));
+        assertSame(other, instances.get("other"));
+        assertNull(instances.get("missing"));
+        assertNull(instances.get(null));
+        assertEquals(Arrays.asList(acme, other), instances.getInstances());
+    }
+
+    @Test
+    public void testDuplicatedIds() {
+        JFrogPlatformInstance first = createInstance("acme", "https://acme.jfrog.io");
+        JFrogPlatformInstance second = createInstance("acme", "https://acme2.jfrog.io");
+        JFrogPlatformInstances instances = new JFrogPlatformInstances(Arrays.asList(first, second));
+        assertSame(first, instances.get("acme"));
+        assertTrue(instances.isDuplicated("acme"));
+        assertFalse(instances.isDuplicated("other"));
+    }
+
+    @Test
+    public void testImmutable() {
+        List<JFrogPlatformInstance> configured = new ArrayList<>();
+        configured.add(createInstance("acme", "https://acme.jfrog.io"));
+        JFrogPlatformInstances instances = new JFrogPlatformInstances(configured);
+
+        // Changing the configured list doesn't change the snapshot
+        configured.add(createInstance("other", "https://other.jfrog.io"));
+        assertEquals(1, instances.getInstances().size());
+        assertNull(instances.get("other"));
+        assertThrows(UnsupportedOperationException.class, () -> instances.getInstances().clear());
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(new JFrogPlatformInstances(null).getInstances().isEmpty());
+        assertTrue(JFrogPlatformInstances.EMPTY.getInstances().isEmpty());
+    }
+
+    @Test
+    public void testWithCredentialsConfig() {
+        CredentialsConfig credentialsConfig = new CredentialsConfig("acme-credentials", null);
+        JFrogPlatformInstance instance = new JFrogPlatformInstance("acme", "https://acme.jfrog.io", credentialsConfig, "", "", "");
+        CredentialsConfig resolved = new CredentialsConfig("acme-credentials", null);
+        JFrogPlatformInstance copy = instance.withCredentialsConfig(resolved);
+        assertSame(resolved, copy.getCredentialsConfig());
+        assertSame(credentialsConfig, instance.getCredentialsConfig());
+        assertEquals("acme", copy.getId());
+        assertEquals(instance.inferArtifactoryUrl(), copy.inferArtifactoryUrl());
+    }
+
+    private static JFrogPlatformInstance createInstance(String id, String url) {
+        return new JFrogPlatformInstance(id, url, null, "", "", "");
+    }
+}
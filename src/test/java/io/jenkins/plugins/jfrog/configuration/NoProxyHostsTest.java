@@ -0,0 +1,59 @@
+package io.jenkins.plugins.jfrog.configuration;
+
+import hudson.ProxyConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoProxyHostsTest {
+    private static final List<String> HOSTS = Arrays.asList("acme.jfrog.io", "acme.jfrog.info", "jfrog.io", ".jfrog.io",
+            "a.b.jfrog.io", "acme.jfrog.io-dashed", "localhost", "127.0.0.1", "10.0.0.12", "acme-jfrog.io", "ACME.jfrog.io");
+
+    @Test
+    public void matchesLikeJenkinsTest() {
+        for (String noProxyHost : Arrays.asList("", "*", "acme.jfrog.io", "*.jfrog.io", "acme.jfrog.*", "*jfrog.io",
+                "acme.jfrog.io-dashed", "localhost|127.0.0.1", "10.0.0.*, *.io", "*.jfrog.io\nlocalhost,acme.jfrog.info",
+                "a+b.io", "*.b.jfrog.io")) {
+            NoProxyHosts noProxyHosts = NoProxyHosts.get(noProxyHost);
+            for (String host : HOSTS) {
+                assertEquals(matchesJenkinsPatterns(noProxyHost, host), noProxyHosts.matches(host), noProxyHost + " - " + host);
+            }
+        }
+    }
+
+    @Test
+    public void largeListTest() {
+        String noProxyHost = IntStream.range(0, 1000)
+                .mapToObj(i -> i % 2 == 0 ? "host" + i + ".acme.io" : "*.domain" + i + ".acme.io")
+                .collect(Collectors.joining(","));
+        NoProxyHosts noProxyHosts = NoProxyHosts.get(noProxyHost);
+        assertTrue(noProxyHosts.matches("host998.acme.io"));
+        assertTrue(noProxyHosts.matches("a.domain999.acme.io"));
+        assertFalse(noProxyHosts.matches("domain999.acme.io"));
+        assertFalse(noProxyHosts.matches("host999.acme.io"));
+        assertEquals(1000, noProxyHosts.getPatterns().size());
+    }
+
+    @Test
+    public void cacheTest() {
+        NoProxyHosts noProxyHosts = NoProxyHosts.get("acme.jfrog.io");
+        assertSame(noProxyHosts, NoProxyHosts.get("acme.jfrog.io"));
+        assertNotSame(noProxyHosts, NoProxyHosts.get("acme.jfrog.info"));
+        assertEquals("acme.jfrog.io,acme.jfrog.info", NoProxyHosts.get("acme.jfrog.io;acme.jfrog.info").getNoProxyValue());
+    }
+
+    private static boolean matchesJenkinsPatterns(String noProxyHost, String host) {
+        for (Pattern pattern : ProxyConfiguration.getNoProxyHostPatterns(noProxyHost)) {
+            if (pattern.matcher(host).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
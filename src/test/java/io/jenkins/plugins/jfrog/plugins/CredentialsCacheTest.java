@@ -0,0 +1,61 @@
+package io.jenkins.plugins.jfrog.plugins;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.assertEquals;
+
+public class CredentialsCacheTest {
+    private static final String CREDENTIALS_ID = "acme-credentials";
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Before
+    public void setUp() {
+        CredentialsCache.clear();
+    }
+
+    @Test
+    public void cacheTest() throws Exception {
+        addCredentials("password1");
+        WorkflowJob job = jenkinsRule.createProject(WorkflowJob.class, "job");
+        CredentialsCache.clear();
+        long hits = CredentialsCache.getHits();
+        long misses = CredentialsCache.getMisses();
+
+        assertEquals("password1", PluginsUtils.credentialsLookup(CREDENTIALS_ID, job).getPlainTextPassword());
+        assertEquals("password1", PluginsUtils.credentialsLookup(CREDENTIALS_ID, job).getPlainTextPassword());
+        assertEquals(misses + 1, CredentialsCache.getMisses());
+        assertEquals(hits + 1, CredentialsCache.getHits());
+
+        // Credentials resolved for another item are cached separately
+        Credentials global = PluginsUtils.credentialsLookup(CREDENTIALS_ID, null);
+        assertEquals("user", global.getPlainTextUsername());
+        assertEquals(misses + 2, CredentialsCache.getMisses());
+    }
+
+    @Test
+    public void invalidationTest() throws Exception {
+        addCredentials("password1");
+        assertEquals("password1", PluginsUtils.credentialsLookup(CREDENTIALS_ID, null).getPlainTextPassword());
+
+        // Changing the credentials store clears the cache
+        addCredentials("password2");
+        assertEquals("password2", PluginsUtils.credentialsLookup(CREDENTIALS_ID, null).getPlainTextPassword());
+    }
+
+    private static void addCredentials(String password) throws Exception {
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().removeIf(credentials -> credentials instanceof UsernamePasswordCredentialsImpl);
+        provider.getCredentials().add(new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, CREDENTIALS_ID, "", "user", password));
+        provider.save();
+    }
+}
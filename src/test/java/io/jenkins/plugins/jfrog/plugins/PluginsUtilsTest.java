@@ -0,0 +1,71 @@
+package io.jenkins.plugins.jfrog.plugins;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.impl.UsernamePasswordCredentialsImpl;
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import org.jenkinsci.plugins.plaincredentials.impl.StringCredentialsImpl;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class PluginsUtilsTest {
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Before
+    public void setUp() throws Exception {
+        SystemCredentialsProvider provider = SystemCredentialsProvider.getInstance();
+        provider.getCredentials().add(new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "user-password", "", "user", "password"));
+        provider.getCredentials().add(new StringCredentialsImpl(CredentialsScope.GLOBAL, "access-token", "", Secret.fromString("token")));
+        // Same ID for both types - the access token takes precedence
+        provider.getCredentials().add(new UsernamePasswordCredentialsImpl(CredentialsScope.GLOBAL, "both", "", "user2", "password2"));
+        provider.getCredentials().add(new StringCredentialsImpl(CredentialsScope.GLOBAL, "both", "", Secret.fromString("token2")));
+        provider.save();
+        CredentialsCache.clear();
+    }
+
+    @Test
+    public void batchCredentialsLookupTest() throws Exception {
+        WorkflowJob job = jenkinsRule.createProject(WorkflowJob.class, "job");
+        CredentialsCache.clear();
+        Map<String, Credentials> credentials = PluginsUtils.credentialsLookup(Arrays.asList("user-password", "access-token", "both", "missing"), job);
+        assertEquals(4, credentials.size());
+
+        assertEquals("user", credentials.get("user-password").getPlainTextUsername());
+        assertEquals("password", credentials.get("user-password").getPlainTextPassword());
+        assertEquals("", credentials.get("user-password").getPlainTextAccessToken());
+
+        assertEquals("token", credentials.get("access-token").getPlainTextAccessToken());
+        assertEquals("token2", credentials.get("both").getPlainTextAccessToken());
+        assertEquals("", credentials.get("both").getPlainTextUsername());
+        assertSame(Credentials.EMPTY_CREDENTIALS, credentials.get("missing"));
+    }
+
+    @Test
+    public void batchCredentialsLookupCacheTest() {
+        long hits = CredentialsCache.getHits();
+        long misses = CredentialsCache.getMisses();
+        PluginsUtils.credentialsLookup(Arrays.asList("user-password", "access-token"), null);
+        assertEquals(misses + 2, CredentialsCache.getMisses());
+
+        // Only the new ID is resolved
+        Map<String, Credentials> credentials = PluginsUtils.credentialsLookup(Arrays.asList("user-password", "access-token", "both"), null);
+        assertEquals(hits + 2, CredentialsCache.getHits());
+        assertEquals(misses + 3, CredentialsCache.getMisses());
+        assertEquals("token2", credentials.get("both").getPlainTextAccessToken());
+
+        // The single credentials lookup uses the same cache
+        assertEquals("password", PluginsUtils.credentialsLookup("user-password", null).getPlainTextPassword());
+        assertEquals(hits + 3, CredentialsCache.getHits());
+    }
+}
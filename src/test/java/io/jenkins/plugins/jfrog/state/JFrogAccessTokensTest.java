@@ -0,0 +1,177 @@
+package io.jenkins.plugins.jfrog.state;
+
+import com.sun.net.httpserver.HttpServer;
+import hudson.util.Secret;
+import io.jenkins.plugins.jfrog.configuration.Credentials;
+import io.jenkins.plugins.jfrog.configuration.CredentialsConfig;
+import io.jenkins.plugins.jfrog.configuration.JFrogPlatformInstance;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.jenkins.plugins.jfrog.state.JFrogAccessTokens.TOKENS_API;
+import static org.junit.Assert.*;
+
+public class JFrogAccessTokensTest {
+    private static final Credentials BASIC_CREDENTIALS = new Credentials(Secret.fromString("andor"), Secret.fromString("RogueOne"), Credentials.EMPTY_SECRET);
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long expiresIn = 3600;
+    private volatile long delayMillis;
+    private volatile String requestBody;
+    private HttpServer server;
+    private JFrogPlatformInstance instance;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(TOKENS_API, exchange -> {
+            int request = requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            requestBody = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            String expectedAuth = "Basic " + Base64.getEncoder().encodeToString("andor:RogueOne".getBytes(StandardCharsets.UTF_8));
+            if (!"POST".equals(exchange.getRequestMethod()) || !expectedAuth.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                exchange.sendResponseHeaders(401, -1);
+                exchange.close();
+                return;
+            }
+            byte[] response = String.format("{\"access_token\":\"token-%d\",\"expires_in\":%d,\"token_type\":\"Bearer\"}", request, expiresIn)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+        instance = new JFrogPlatformInstance("acme", url, new CredentialsConfig("basic", null), "", "", "");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void createAccessTokenTest() throws Exception {
+        JFrogAccessTokens.AccessToken accessToken = JFrogAccessTokens.createAccessToken(instance.getUrl(), BASIC_CREDENTIALS, 3600);
+        assertEquals("token-1", Secret.toString(accessToken.getToken()));
+        assertTrue(accessToken.getExpiresAt() > System.currentTimeMillis());
+        assertTrue(requestBody.contains("\"scope\":\"applied-permissions/user\""));
+        assertTrue(requestBody.contains("\"expires_in\":3600"));
+
+        // Wrong credentials
+        Credentials wrongCredentials = new Credentials(Secret.fromString("andor"), Secret.fromString("Empire"), Credentials.EMPTY_SECRET);
+        assertThrows(IOException.class, () -> JFrogAccessTokens.createAccessToken(instance.getUrl(), wrongCredentials, 3600));
+    }
+
+    @Test
+    public void cacheTest() {
+        JFrogAccessTokens accessTokens = new JFrogAccessTokens();
+        Credentials credentials = accessTokens.getCredentials(instance, BASIC_CREDENTIALS);
+        assertEquals("token-1", credentials.getPlainTextAccessToken());
+        assertEquals("", credentials.getPlainTextUsername());
+        assertEquals("", credentials.getPlainTextPassword());
+
+        // The token is created once
+        assertEquals("token-1", accessTokens.getCredentials(instance, BASIC_CREDENTIALS).getPlainTextAccessToken());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void refreshTest() throws InterruptedException {
+        // A token is reused while at least half of its lifetime is left
+        long hour = TimeUnit.HOURS.toMillis(1);
+        CompletableFuture<JFrogAccessTokens.AccessToken> future = CompletableFuture.completedFuture(
+                new JFrogAccessTokens.AccessToken(Secret.fromString("token"), 0, hour));
+        assertFalse(JFrogAccessTokens.needsRefresh(future, hour / 2 - 1));
+        assertTrue(JFrogAccessTokens.needsRefresh(future, hour / 2));
+
+        // Tokens that never expire are never replaced
+        future = CompletableFuture.completedFuture(new JFrogAccessTokens.AccessToken(Secret.fromString("token"), 0, Long.MAX_VALUE));
+        assertFalse(JFrogAccessTokens.needsRefresh(future, hour * 24 * 365));
+
+        // Half of the lifetime of a token that expires in a second passes before the next step
+        expiresIn = 1;
+        JFrogAccessTokens accessTokens = new JFrogAccessTokens();
+        assertEquals("token-1", accessTokens.getCredentials(instance, BASIC_CREDENTIALS).getPlainTextAccessToken());
+        Thread.sleep(500);
+        assertEquals("token-2", accessTokens.getCredentials(instance, BASIC_CREDENTIALS).getPlainTextAccessToken());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void fallbackTest() {
+        status = 500;
+        JFrogAccessTokens accessTokens = new JFrogAccessTokens();
+        assertSame(BASIC_CREDENTIALS, accessTokens.getCredentials(instance, BASIC_CREDENTIALS));
+
+        // The token isn't requested again until the retry time
+        assertSame(BASIC_CREDENTIALS, accessTokens.getCredentials(instance, BASIC_CREDENTIALS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void retryAfterFailureTest() {
+        status = 500;
+        JFrogAccessTokens accessTokens = new JFrogAccessTokens(0);
+        assertSame(BASIC_CREDENTIALS, accessTokens.getCredentials(instance, BASIC_CREDENTIALS));
+
+        // The server recovered, and the retry time has passed
+        status = 200;
+        assertEquals("token-2", accessTokens.getCredentials(instance, BASIC_CREDENTIALS).getPlainTextAccessToken());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        delayMillis = 500;
+        JFrogAccessTokens accessTokens = new JFrogAccessTokens();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Credentials>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(() -> accessTokens.getCredentials(instance, BASIC_CREDENTIALS)));
+            }
+            for (Future<Credentials> future : futures) {
+                assertEquals("token-1", future.get(1, TimeUnit.MINUTES).getPlainTextAccessToken());
+            }
+            // The steps waited for the token being created
+            assertEquals(1, requests.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void accessTokenCredentialsTest() {
+        Credentials credentials = new Credentials(Credentials.EMPTY_SECRET, Credentials.EMPTY_SECRET, Secret.fromString("long-lived"));
+        assertSame(credentials, new JFrogAccessTokens().getCredentials(instance, credentials));
+        assertEquals(0, requests.get());
+    }
+}
@@ -0,0 +1,43 @@
+package io.jenkins.plugins.jfrog.state;
+
+import hudson.EnvVars;
+import hudson.FilePath;
+import io.jenkins.plugins.jfrog.actions.JFrogCliConfigEncryption;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class JFrogRunStateTest {
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void runStateTest() throws Exception {
+        WorkflowJob job = jenkinsRule.createProject(WorkflowJob.class, "job");
+        WorkflowRun run1 = jenkinsRule.buildAndAssertSuccess(job);
+        WorkflowRun run2 = jenkinsRule.buildAndAssertSuccess(job);
+
+        // One key per run
+        JFrogCliConfigEncryption encryption = JFrogRunState.get(run1).getConfigEncryption(new EnvVars());
+        assertSame(encryption, JFrogRunState.get(run1).getConfigEncryption(new EnvVars()));
+        assertNotEquals(encryption.getKey(), JFrogRunState.get(run2).getConfigEncryption(new EnvVars()).getKey());
+        assertSame(JFrogRunState.get(run1).getAccessTokens(), JFrogRunState.get(run1).getAccessTokens());
+
+        // The state isn't saved with the run
+        run1.save();
+        assertFalse(Files.readString(run1.getRootDir().toPath().resolve("build.xml")).contains(encryption.getKey()));
+        assertNull(run1.getAction(JFrogCliConfigEncryption.class));
+
+        FilePath homeDir = jenkinsRule.jenkins.getRootPath().child("jfrog-home");
+        assertFalse(JFrogRunState.get(run1).isConfigured(homeDir));
+        JFrogRunState.get(run1).setConfigured(homeDir);
+        assertTrue(JFrogRunState.get(run1).isConfigured(homeDir));
+        assertFalse(JFrogRunState.get(run2).isConfigured(homeDir));
+    }
+}